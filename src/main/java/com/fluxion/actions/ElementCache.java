@@ -0,0 +1,129 @@
+package com.fluxion.actions;
+
+import com.fluxion.core.FluxionConfig;
+import com.fluxion.core.LatencyMetrics;
+import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * ElementCache remembers the elements found for (page, locator) so repeated actions on the same field skip
+ * the {@code findElement} round-trip.
+ *
+ * <p>Opt-in with {@code -Dfluxion.elementCache=true} or {@code elementCache: true} in config.yml. A cache
+ * belongs to one scenario's actions and is dropped when the page changes, on navigation, and when the
+ * browser session changes. A cached element that has gone stale is evicted and looked up again once,
+ * without the caller noticing. Hit, miss and stale counts are kept across the whole run.</p>
+ */
+public class ElementCache {
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static final LongAdder stale = new LongAdder();
+
+    private final boolean enabled;
+    // One cache per scenario, used by its thread only
+    private final Map<String, WebElement> elements = new HashMap<>();
+    private WebDriver owner;
+
+    public ElementCache(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return True if element caching was requested by system property or config.yml.
+     */
+    public static boolean isEnabledByConfig() {
+        return FluxionConfig.get().getBoolean("elementCache");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Runs an action on the element behind a locator, using the cached element when there is one.
+     * If the cached element is stale it is looked up again and the action retried once.
+     *
+     * @param driver The driver of the current session.
+     * @param page   The current page name.
+     * @param field  The locator name.
+     * @param by     The locator.
+     * @param action The action on the element.
+     * @param <T>    The action's result type.
+     * @return The action's result.
+     */
+    public <T> T use(WebDriver driver, String page, String field, By by, Function<WebElement, T> action) {
+        if (!enabled) {
+            return action.apply(find(driver, page, field, by));
+        }
+        if (driver != owner) {
+            elements.clear();
+            owner = driver;
+        }
+        String key = key(page, field);
+        WebElement cached = elements.get(key);
+        if (cached != null) {
+            try {
+                T result = action.apply(cached);
+                hits.increment();
+                return result;
+            } catch (StaleElementReferenceException e) {
+                stale.increment();
+                elements.remove(key);
+            }
+        }
+        misses.increment();
+        WebElement element = find(driver, page, field, by);
+        elements.put(key, element);
+        return action.apply(element);
+    }
+
+    /**
+     * Drops every cached element, e.g. after a navigation or a page switch.
+     */
+    public void invalidate() {
+        elements.clear();
+    }
+
+    public static long getHits() {
+        return hits.sum();
+    }
+
+    public static long getMisses() {
+        return misses.sum();
+    }
+
+    public static long getStale() {
+        return stale.sum();
+    }
+
+    /**
+     * @return A one-line summary of hits, misses and stale re-lookups during this run.
+     */
+    public static String summary() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return String.format(Locale.ROOT, "Element cache: %d hit(s), %d miss(es), %d stale, %.1f%% of lookups saved",
+                hitCount, misses.sum(), stale.sum(), total == 0 ? 0.0 : hitCount * 100.0 / total);
+    }
+
+    private static WebElement find(WebDriver driver, String page, String field, By by) {
+        long started = LatencyMetrics.start();
+        try {
+            return driver.findElement(by);
+        } finally {
+            LatencyMetrics.record("find", key(page, field), started);
+        }
+    }
+
+    private static String key(String page, String field) {
+        return page + "." + field;
+    }
+}
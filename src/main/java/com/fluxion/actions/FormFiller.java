@@ -0,0 +1,148 @@
+package com.fluxion.actions;
+
+import com.fluxion.core.Locator;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * FormFiller resolves and fills many form fields with one script call.
+ *
+ * <p>Each field is located in the page from its locator type and value, checked for visibility and
+ * {@code disabled}/{@code readonly}, and set the way a framework listening for input expects: the native value
+ * setter followed by {@code input} and {@code change} events. Selects are matched by visible option text,
+ * checkboxes and radios take {@code true}/{@code false}. Fields that need real key events are only located
+ * and handed back as elements, so the caller can type into them.</p>
+ */
+public final class FormFiller {
+
+    static final String SCRIPT = """
+            const fields = arguments[0];
+            const pending = {};
+            const typed = {};
+            const find = (type, value) => {
+                switch (type) {
+                    case 'id': return document.getElementById(value);
+                    case 'css': return document.querySelector(value);
+                    case 'name': return document.getElementsByName(value)[0] || null;
+                    case 'tagname': return document.getElementsByTagName(value)[0] || null;
+                    case 'xpath': return document.evaluate(value, document, null,
+                            XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;
+                    case 'linktext': return Array.from(document.links).find(a => a.innerText.trim() === value) || null;
+                    case 'partiallinktext': return Array.from(document.links).find(a => a.innerText.includes(value)) || null;
+                    default: return null;
+                }
+            };
+            const fire = el => {
+                el.dispatchEvent(new Event('input', {bubbles: true}));
+                el.dispatchEvent(new Event('change', {bubbles: true}));
+            };
+            for (const [field, type, locator, value, realKeys] of fields) {
+                let el;
+                try {
+                    el = find(type, locator);
+                } catch (e) {
+                    pending[field] = 'invalid locator: ' + e.message;
+                    continue;
+                }
+                if (!el) { pending[field] = 'not found'; continue; }
+                if (el.getClientRects().length === 0 || getComputedStyle(el).visibility === 'hidden') {
+                    pending[field] = 'not visible'; continue;
+                }
+                if (el.disabled || el.readOnly) { pending[field] = 'disabled'; continue; }
+                if (realKeys) { typed[field] = el; continue; }
+                const tag = el.tagName.toLowerCase();
+                if (tag === 'select') {
+                    const option = Array.from(el.options).find(o => o.text.trim() === value.trim());
+                    if (!option) { pending[field] = 'no option ' + value; continue; }
+                    el.value = option.value;
+                    fire(el);
+                } else if (tag === 'input' && (el.type === 'checkbox' || el.type === 'radio')) {
+                    const wanted = /^(true|yes|on|checked|1)$/i.test(value);
+                    if (el.checked !== wanted) { el.click(); }
+                } else if (tag === 'input' || tag === 'textarea') {
+                    const proto = tag === 'input' ? HTMLInputElement.prototype : HTMLTextAreaElement.prototype;
+                    Object.getOwnPropertyDescriptor(proto, 'value').set.call(el, value);
+                    fire(el);
+                } else if (el.isContentEditable) {
+                    el.textContent = value;
+                    fire(el);
+                } else {
+                    pending[field] = 'not a form field (' + tag + ')';
+                }
+            }
+            return {pending: pending, typed: typed};
+            """;
+
+    private FormFiller() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Outcome of one fill pass.
+     */
+    public static final class Result {
+        private final Map<String, String> pending;
+        private final Map<String, WebElement> typed;
+
+        Result(Map<String, String> pending, Map<String, WebElement> typed) {
+            this.pending = pending;
+            this.typed = typed;
+        }
+
+        /**
+         * @return Fields that could not be filled yet, with the reason.
+         */
+        public Map<String, String> getPending() {
+            return pending;
+        }
+
+        /**
+         * @return Fields that need real key events, located and ready to type into.
+         */
+        public Map<String, WebElement> getTyped() {
+            return typed;
+        }
+    }
+
+    /**
+     * Fills the given fields in one script call.
+     *
+     * @param driver    The driver.
+     * @param values    Field name to value, in fill order.
+     * @param locators  Field name to locator.
+     * @param realKeys  Fields to leave for typing with real key events.
+     * @return The fields still pending and the located fields to type into.
+     */
+    @SuppressWarnings("unchecked")
+    public static Result fill(WebDriver driver, Map<String, String> values, Map<String, Locator> locators,
+                              Set<String> realKeys) {
+        List<List<Object>> fields = new ArrayList<>();
+        values.forEach((field, value) -> {
+            Locator locator = locators.get(field);
+            fields.add(List.of(field, locator.getType(), locator.getValue(), value, realKeys.contains(field)));
+        });
+        Object raw = ((JavascriptExecutor) driver).executeScript(SCRIPT, fields);
+        Map<String, Object> result = raw instanceof Map ? (Map<String, Object>) raw : Map.of();
+
+        Map<String, String> pending = new LinkedHashMap<>();
+        Object pendingRaw = result.get("pending");
+        if (pendingRaw instanceof Map) {
+            ((Map<String, Object>) pendingRaw).forEach((field, reason) -> pending.put(field, String.valueOf(reason)));
+        } else {
+            values.keySet().forEach(field -> pending.put(field, "no result from the browser"));
+        }
+        Map<String, WebElement> typed = new LinkedHashMap<>();
+        Object typedRaw = result.get("typed");
+        if (typedRaw instanceof Map) {
+            ((Map<String, Object>) typedRaw).forEach((field, element) -> typed.put(field, (WebElement) element));
+        }
+        return new Result(pending, typed);
+    }
+}
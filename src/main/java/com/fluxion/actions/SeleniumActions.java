@@ -1,36 +1,74 @@
 package com.fluxion.actions;
 
 import com.fluxion.core.DriverManager;
-import com.fluxion.core.LocatorManager;
-import com.fluxion.utils.FluxionConstants;
-import com.fluxion.utils.ThreadSafeMemory;
+import com.fluxion.core.LatencyMetrics;
+import com.fluxion.core.Locator;
+import com.fluxion.core.LocatorIndex;
+import com.fluxion.utils.ScenarioContext;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.ui.Select;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
 
 /**
  * SeleniumActions provides reusable methods for common Selenium operations.
- * Ensures thread safety for WebDriver and Actions instances.
+ * Each instance works on the driver and current page of one scenario's {@link ScenarioContext}.
  */
 public class SeleniumActions {
     private static final Logger logger = LogManager.getLogger(SeleniumActions.class);
-    private static final ThreadLocal<WebDriver> threadDriver = new ThreadLocal<>();
-    private static final ThreadLocal<Actions> threadActions = ThreadLocal.withInitial(() -> new Actions(threadDriver.get()));
+
+    private final ScenarioContext context;
+    private final WaitEngine waitEngine;
+    private final ElementCache elementCache;
+
+    public SeleniumActions(ScenarioContext context) {
+        this(context, WaitEngine.fromConfig());
+    }
+
+    public SeleniumActions(ScenarioContext context, WaitEngine waitEngine) {
+        this(context, waitEngine, new ElementCache(ElementCache.isEnabledByConfig()));
+    }
+
+    public SeleniumActions(ScenarioContext context, WaitEngine waitEngine, ElementCache elementCache) {
+        this.context = context;
+        this.waitEngine = waitEngine;
+        this.elementCache = elementCache;
+    }
+
+    public WaitEngine getWaitEngine() {
+        return waitEngine;
+    }
 
     /**
-     * Navigate to a specified URL.
+     * Forgets the elements found so far; call when the page changes.
+     */
+    public void invalidateElementCache() {
+        elementCache.invalidate();
+    }
+
+    /**
+     * Navigate to a specified URL. The page load time is recorded under {@code navigate}, labelled with the
+     * browser and driver preset so presets can be compared.
      *
      * @param url the URL to navigate to
      */
     public void navigateTo(String url) {
         try {
             logger.info("Navigating to URL: {}", url);
-            getDriver().get(url);
+            elementCache.invalidate();
+            WebDriver driver = getDriver();
+            long started = LatencyMetrics.start();
+            driver.get(url);
+            LatencyMetrics.record("navigate", DriverManager.describe(driver), started);
         } catch (Exception e) {
             logger.error("Failed to navigate to URL: {}", url, e);
             throw new RuntimeException(e);
@@ -38,33 +76,49 @@ public class SeleniumActions {
     }
 
     /**
-     * Finds a web element using the specified locator name.
+     * Resolves a locator on the current page from the compiled locator index.
      *
      * @param locatorName Name of the locator in the YAML file.
-     * @return The located WebElement.
+     * @return The compiled locator.
      */
-    private By getLocator(String locatorName) {
-        logger.debug("Trying to file Element with locator: {}", locatorName);
-        try {
-            String locatorData = LocatorManager.getNestedLocator(
-                    ThreadSafeMemory.get(FluxionConstants.CURRENT_PAGE_NAME).toString(), locatorName);
-            String locatorType = locatorData.split("__")[0];
-            String locatorValue = locatorData.split("__")[1];
-            logger.debug("Locator type: '{}' and Locator Value: '{}'", locatorType, locatorValue);
-
-            return switch (locatorType.toLowerCase()) {
-                case "id" -> By.id(locatorValue);
-                case "xpath" -> By.xpath(locatorValue);
-                case "css" -> By.cssSelector(locatorValue);
-                case "name" -> By.name(locatorValue);
-                case "linktext" -> By.linkText(locatorValue);
-                case "partiallinktext" -> By.partialLinkText(locatorValue);
-                case "tagname" -> By.tagName(locatorValue);
-                default -> throw new RuntimeException("Unsupported locator type: " + locatorType);
-            };
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to find element: " + locatorName, e);
+    private Locator getLocator(String locatorName) {
+        LocatorIndex.Page page = context.getPageLocators();
+        if (page == null) {
+            throw new RuntimeException("No locators loaded for page: "
+                    + context.getPageName() + " (field: " + locatorName + ")");
         }
+        Locator locator = page.get(locatorName);
+        if (locator == null) {
+            throw new RuntimeException("Locator not found on page " + page.getName() + ": " + locatorName);
+        }
+        return locator;
+    }
+
+    /**
+     * Waits until the element behind a locator is displayed (and enabled, if required) and returns it.
+     *
+     * @param action        The action about to be performed, used for the timeout and the wait timings.
+     * @param locatorName   Name of the locator in the YAML file.
+     * @param target        The locator as {@code page.field}, see {@link #target(String)}.
+     * @param requireEnabled True if the element must also be enabled.
+     * @return The element.
+     */
+    private WebElement waitForElement(String action, String locatorName, String target, boolean requireEnabled) {
+        By by = getLocator(locatorName).getBy();
+        WebDriver driver = getDriver();
+        String page = context.getPageName();
+        return waitEngine.until(action, target, timeout(action, locatorName), () ->
+                elementCache.use(driver, page, locatorName, by, element ->
+                        element.isDisplayed() && (!requireEnabled || element.isEnabled()) ? element : null));
+    }
+
+    private Duration timeout(String action, String locatorName) {
+        return waitEngine.timeoutFor(action, context.getPageName(), locatorName);
+    }
+
+    // Built once per action and passed on, for wait timings, metrics and messages
+    private String target(String locatorName) {
+        return context.getPageName() + "." + locatorName;
     }
 
     /**
@@ -74,30 +128,122 @@ public class SeleniumActions {
      * @param text        The text to enter.
      */
     public void enterText(String locatorName, String text) {
+        long started = LatencyMetrics.start();
+        String target = target(locatorName);
         try {
             logger.debug("Entering text: '{}' in field: {}", text, locatorName);
-            WebElement element = DriverManager.getDriver().findElement(getLocator(locatorName));
+            WebElement element = waitForElement("enterText", locatorName, target, true);
             element.clear();
             element.sendKeys(text);
         } catch (Exception e) {
             logger.error("Failed to enter text: '{}' in field: {}", text, locatorName, e);
             throw new RuntimeException(e);
+        } finally {
+            LatencyMetrics.record("enterText", target, started);
         }
     }
 
     /**
-     * Clicks on a web element identified by the specified locator name.
+     * Clicks on a web element identified by the specified locator name. The click is retried while the element
+     * is missing, stale, disabled or covered by another element.
      *
      * @param locatorName Name of the locator in the YAML file.
      */
     public void click(String locatorName) {
+        long started = LatencyMetrics.start();
+        String target = target(locatorName);
         try {
             logger.debug("Clicking on field: {}", locatorName);
-            WebElement element = DriverManager.getDriver().findElement(getLocator(locatorName));
-            element.click();
+            By by = getLocator(locatorName).getBy();
+            WebDriver driver = getDriver();
+            String page = context.getPageName();
+            waitEngine.until("click", target, timeout("click", locatorName), () ->
+                    elementCache.use(driver, page, locatorName, by, element -> {
+                        if (!element.isDisplayed() || !element.isEnabled()) {
+                            return false;
+                        }
+                        element.click();
+                        return true;
+                    }));
         } catch (Exception e) {
             logger.error("Failed to click on field: {}", locatorName, e);
             throw new RuntimeException(e);
+        } finally {
+            LatencyMetrics.record("click", target, started);
+        }
+    }
+
+    /**
+     * Fills several fields of the current page at once. Fields are located and set by one script per attempt
+     * instead of a find, clear and type call each; fields in {@code realKeyFields} are typed with real key
+     * events. Attempts are repeated until every field is filled or the {@code fillForm} timeout expires.
+     *
+     * @param values        Field name to value, in fill order.
+     * @param realKeyFields Fields that need real key events.
+     * @return The number of driver round-trips used.
+     */
+    public int fillForm(Map<String, String> values, Set<String> realKeyFields) {
+        Map<String, Locator> locators = new LinkedHashMap<>();
+        values.keySet().forEach(field -> locators.put(field, getLocator(field)));
+        WebDriver driver = getDriver();
+        Map<String, String> remaining = new LinkedHashMap<>(values);
+        Map<String, String> reasons = new LinkedHashMap<>();
+        int[] roundTrips = {0};
+        long started = LatencyMetrics.start();
+        try {
+            waitEngine.until("fillForm", values.size() + " field(s) on " + context.getPageName(),
+                    timeout("fillForm", null), () -> {
+                        FormFiller.Result result = FormFiller.fill(driver, remaining, locators, realKeyFields);
+                        roundTrips[0]++;
+                        for (Map.Entry<String, WebElement> typed : result.getTyped().entrySet()) {
+                            typed.getValue().clear();
+                            typed.getValue().sendKeys(remaining.get(typed.getKey()));
+                            roundTrips[0] += 2;
+                        }
+                        remaining.keySet().retainAll(result.getPending().keySet());
+                        reasons.clear();
+                        reasons.putAll(result.getPending());
+                        return remaining.isEmpty();
+                    });
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Could not fill " + reasons, e);
+        } finally {
+            LatencyMetrics.record("fillForm", context.getPageName(), started);
+        }
+        logger.debug("Filled {} field(s) in {} round-trip(s) instead of {}", values.size(), roundTrips[0], values.size() * 3);
+        return roundTrips[0];
+    }
+
+    /**
+     * Waits until a text is rendered on the page. The check runs in the browser and ignores markup and hidden text.
+     *
+     * @param text The expected text.
+     * @return How long it took for the text to become visible.
+     */
+    public Duration verifyTextVisible(String text) {
+        return verifyTextVisible(text, null);
+    }
+
+    /**
+     * Waits until a text is rendered inside the element behind a locator.
+     *
+     * @param text        The expected text.
+     * @param locatorName Name of the locator in the YAML file, or null for the whole page.
+     * @return How long it took for the text to become visible.
+     */
+    public Duration verifyTextVisible(String text, String locatorName) {
+        logger.debug("Verifying text: '{}' in: {}", text, locatorName != null ? locatorName : "page");
+        WebDriver driver = getDriver();
+        By scope = locatorName != null ? getLocator(locatorName).getBy() : null;
+        String target = locatorName != null ? target(locatorName) : context.getPageName();
+        long start = System.nanoTime();
+        try {
+            waitEngine.until("verifyText", "'" + text + "'" + (locatorName != null ? " in " + target : ""),
+                    timeout("verifyText", locatorName), () ->
+                    VisibleText.count(driver, text, scope != null ? driver.findElement(scope) : null) > 0);
+            return Duration.ofNanos(System.nanoTime() - start);
+        } finally {
+            LatencyMetrics.recordNanos("verifyText", target, System.nanoTime() - start);
         }
     }
 
@@ -108,35 +254,31 @@ public class SeleniumActions {
      * @param value     the value to select
      */
     public void selectFromDropdown(String fieldName, String value) {
+        long started = LatencyMetrics.start();
+        String target = target(fieldName);
         try {
             logger.debug("Selecting value: '{}' from dropdown: {}", value, fieldName);
-            WebElement dropdown = getDriver().findElement(getLocator(fieldName));
+            WebElement dropdown = waitForElement("select", fieldName, target, true);
             Select select = new Select(dropdown);
             select.selectByVisibleText(value);
         } catch (Exception e) {
             logger.error("Failed to select value: '{}' from dropdown: {}", value, fieldName, e);
             throw new RuntimeException("Error selecting value from dropdown", e);
+        } finally {
+            LatencyMetrics.record("select", target, started);
         }
     }
 
     /**
-     * Get the thread-safe WebDriver instance.
+     * Get the scenario's WebDriver instance.
      *
      * @return WebDriver instance.
      */
     private WebDriver getDriver() {
-        WebDriver driver = DriverManager.getDriver();
+        WebDriver driver = context.getDriver();
         if (driver == null) {
-            throw new IllegalStateException("WebDriver is not initialized for the current thread.");
+            throw new IllegalStateException("WebDriver is not initialized for the current scenario.");
         }
         return driver;
     }
-
-    /**
-     * Clean up the WebDriver and Actions instances for the current thread.
-     */
-    public static void cleanup() {
-        threadDriver.remove();
-        threadActions.remove();
-    }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.fluxion.actions;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+/**
+ * VisibleText checks for rendered text inside the browser with one script call.
+ *
+ * <p>The page source is never transferred: the script normalises whitespace and first rejects the page with a
+ * cheap {@code textContent} test, which needs no layout. Only when that matches does it count matches in
+ * {@code innerText}, which leaves out text hidden with {@code display:none} or {@code visibility:hidden} as
+ * well as markup, scripts and styles. Only the number of matches crosses the wire.</p>
+ */
+public final class VisibleText {
+
+    static final String SCRIPT = """
+            const text = arguments[0].replace(/\\s+/g, ' ').trim();
+            const scope = arguments[1] || document.body || document.documentElement;
+            // Blank text is trivially present, as it was with a page source contains() check
+            if (!text) {
+                return 1;
+            }
+            if (!scope) {
+                return 0;
+            }
+            // Block boundaries become line breaks in innerText but nothing in textContent, so the cheap
+            // pre-check compares without any whitespace
+            const compact = value => (value || '').replace(/\\s+/g, '');
+            if (!compact(scope.textContent).includes(compact(text))) {
+                return 0;
+            }
+            const rendered = (scope.innerText || '').replace(/\\s+/g, ' ');
+            let count = 0;
+            for (let i = rendered.indexOf(text); i >= 0; i = rendered.indexOf(text, i + text.length)) {
+                count++;
+            }
+            return count;
+            """;
+
+    private VisibleText() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Counts the visible occurrences of a text.
+     *
+     * @param driver The driver.
+     * @param text   The text; runs of whitespace match any whitespace.
+     * @param scope  The element to search in, or null for the whole page.
+     * @return The number of visible matches; 1 for blank text, which is always present.
+     */
+    public static long count(WebDriver driver, String text, WebElement scope) {
+        Object result = ((JavascriptExecutor) driver).executeScript(SCRIPT, text, scope);
+        return result instanceof Number number ? number.longValue() : 0;
+    }
+}
@@ -0,0 +1,199 @@
+package com.fluxion.actions;
+
+import com.fluxion.core.FluxionConfig;
+import com.fluxion.core.LatencyMetrics;
+import com.fluxion.core.LocatorIndex;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.ElementNotInteractableException;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchFrameException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.support.ui.Sleeper;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * WaitEngine polls a condition until it holds or a timeout expires. It replaces the global implicit wait.
+ *
+ * <p>Polling starts at {@code wait.pollMillis} and backs off by {@code wait.backoff} up to
+ * {@code wait.maxPollMillis}, so an element that is already there costs one lookup and a slow one does not
+ * flood the driver. Timeouts are resolved per locator ({@code waitTimeouts: {page.field: seconds}}), then per
+ * action ({@code waitTimeouts: {click: seconds}}), then the top-level {@code timeout}. Every wait is reported to
+ * a {@link Listener} with the time it actually took.</p>
+ *
+ * <p>Time comes from the given {@link Clock} and {@link Sleeper}, so the timing behaviour can be exercised
+ * with a fake clock and a sleeper that advances it.</p>
+ */
+public class WaitEngine {
+    private static final Logger logger = LogManager.getLogger(WaitEngine.class);
+    // Marks a cached lookup that found no configured timeout; compared by identity
+    private static final Duration UNSET = Duration.ofSeconds(-1);
+
+    private final Clock clock;
+    private final Sleeper sleeper;
+    private final Duration defaultTimeout;
+    private final Duration initialPoll;
+    private final Duration maxPoll;
+    private final double backoff;
+    private final Map<String, Duration> timeouts;
+    private final boolean locatorTimeouts;
+    // Resolved timeouts by page and field, and by action, as passed in; UNSET where none is configured
+    private final Map<String, Map<String, Duration>> byLocator = new ConcurrentHashMap<>();
+    private final Map<String, Duration> byAction = new ConcurrentHashMap<>();
+    private volatile Listener listener = WaitEngine::log;
+
+    /**
+     * Receives the outcome of every wait.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * @param action    The action that waited, e.g. {@code click}.
+         * @param target    What was waited for, usually {@code page.field}.
+         * @param elapsed   How long the wait took.
+         * @param attempts  How many times the condition was evaluated.
+         * @param satisfied False if the wait timed out.
+         */
+        void onWait(String action, String target, Duration elapsed, int attempts, boolean satisfied);
+    }
+
+    public WaitEngine(Clock clock, Sleeper sleeper, Duration defaultTimeout, Duration initialPoll, Duration maxPoll,
+                      double backoff, Map<String, Duration> timeouts) {
+        this.clock = clock;
+        this.sleeper = sleeper;
+        this.defaultTimeout = defaultTimeout;
+        this.initialPoll = initialPoll;
+        this.maxPoll = maxPoll.compareTo(initialPoll) < 0 ? initialPoll : maxPoll;
+        this.backoff = Math.max(1.0, backoff);
+        this.timeouts = Map.copyOf(timeouts);
+        this.locatorTimeouts = timeouts.keySet().stream().anyMatch(key -> key.indexOf('.') >= 0);
+    }
+
+    /**
+     * Creates an engine from config.yml using the system clock.
+     *
+     * @return The configured engine.
+     */
+    public static WaitEngine fromConfig() {
+        FluxionConfig config = FluxionConfig.get();
+        Map<String, Duration> timeouts = new HashMap<>();
+        config.getDurations("waitTimeouts").forEach((key, timeout) -> timeouts.put(normalizeKey(key), timeout));
+        return new WaitEngine(Clock.systemUTC(), Sleeper.SYSTEM_SLEEPER,
+                config.getDuration("timeout"),
+                config.getDuration("wait.pollMillis"),
+                config.getDuration("wait.maxPollMillis"),
+                config.getDouble("wait.backoff"),
+                timeouts);
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener != null ? listener : WaitEngine::log;
+    }
+
+    /**
+     * Resolves the timeout for an action on a locator. Each page, field and action is normalised and looked up
+     * once; later calls are answered from a cache.
+     *
+     * @param action The action name, e.g. {@code click}.
+     * @param page   The page name, may be null.
+     * @param field  The locator name, may be null.
+     * @return The most specific configured timeout.
+     */
+    public Duration timeoutFor(String action, String page, String field) {
+        if (locatorTimeouts && page != null && field != null) {
+            Duration locatorTimeout = byLocator.computeIfAbsent(page, key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(field, key -> configured(page + "." + field));
+            if (locatorTimeout != UNSET) {
+                return locatorTimeout;
+            }
+        }
+        if (action != null) {
+            Duration actionTimeout = byAction.computeIfAbsent(action, this::configured);
+            if (actionTimeout != UNSET) {
+                return actionTimeout;
+            }
+        }
+        return defaultTimeout;
+    }
+
+    private Duration configured(String key) {
+        return timeouts.getOrDefault(normalizeKey(key), UNSET);
+    }
+
+    /**
+     * Evaluates the condition until it returns a non-null value other than {@code Boolean.FALSE}.
+     * Missing, stale or not yet interactable elements count as "not yet".
+     *
+     * @param action    The action name, for timings and messages.
+     * @param target    What is waited for, for timings and messages.
+     * @param timeout   How long to keep trying.
+     * @param condition The condition.
+     * @param <T>       The condition's result type.
+     * @return The condition's result.
+     * @throws TimeoutException if the condition did not hold in time; the last failure is the cause.
+     */
+    public <T> T until(String action, String target, Duration timeout, Supplier<T> condition) {
+        Instant start = clock.instant();
+        Instant deadline = start.plus(timeout);
+        Duration poll = initialPoll;
+        RuntimeException lastFailure = null;
+        int attempts = 0;
+        while (true) {
+            attempts++;
+            try {
+                T value = condition.get();
+                if (value != null && !Boolean.FALSE.equals(value)) {
+                    Duration elapsed = Duration.between(start, clock.instant());
+                    LatencyMetrics.recordNanos("wait." + action, null, elapsed.toNanos());
+                    listener.onWait(action, target, elapsed, attempts, true);
+                    return value;
+                }
+            } catch (NoSuchElementException | StaleElementReferenceException | ElementNotInteractableException
+                     | NoSuchFrameException e) {
+                lastFailure = e;
+            }
+
+            Instant now = clock.instant();
+            if (!now.isBefore(deadline)) {
+                Duration elapsed = Duration.between(start, now);
+                LatencyMetrics.recordNanos("wait." + action, null, elapsed.toNanos());
+                listener.onWait(action, target, elapsed, attempts, false);
+                throw new TimeoutException("Timed out after " + elapsed.toMillis() + " ms (" + attempts
+                        + " attempt(s)) waiting to " + action + " " + target, lastFailure);
+            }
+            Duration remaining = Duration.between(now, deadline);
+            try {
+                sleeper.sleep(poll.compareTo(remaining) < 0 ? poll : remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting to " + action + " " + target, e);
+            }
+            long next = Math.round(poll.toNanos() * backoff);
+            poll = next < maxPoll.toNanos() ? Duration.ofNanos(next) : maxPoll;
+        }
+    }
+
+    private static String normalizeKey(String key) {
+        int dot = key.lastIndexOf('.');
+        if (dot < 0) {
+            return LocatorIndex.normalize(key);
+        }
+        return LocatorIndex.normalize(key.substring(0, dot)) + "." + LocatorIndex.normalize(key.substring(dot + 1));
+    }
+
+    private static void log(String action, String target, Duration elapsed, int attempts, boolean satisfied) {
+        if (satisfied) {
+            logger.debug("Waited {} ms ({} attempt(s)) to {} {}", elapsed.toMillis(), attempts, action, target);
+        } else {
+            logger.warn("Gave up after {} ms ({} attempt(s)) waiting to {} {}", elapsed.toMillis(), attempts, action, target);
+        }
+    }
+}
@@ -1,48 +1,44 @@
 package com.fluxion.core;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
-
-import java.io.File;
 import java.util.Map;
 
+/**
+ * ConfigManager offers string lookups over the {@link FluxionConfig} snapshot. Values are converted to
+ * strings once when the snapshot is built; typed settings are read from {@link FluxionConfig} directly.
+ */
 public class ConfigManager {
-    private static Map<String, Object> config;
+    public static final String CONFIG_FILE = FluxionConfig.DEFAULT_FILE;
 
     static {
-        loadConfig();
+        // Fail at startup, listing every invalid setting, rather than on first use
+        FluxionConfig.get();
     }
 
-    private static void loadConfig() {
-        try {
-            ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
-            File configFile = new File("src/test/resources/config/config.yml");
-            config = mapper.readValue(configFile, Map.class);
-        } catch (Exception e) {
-            System.err.println("Failed to load configuration file: src/test/resources/config/config.yml");
-            e.printStackTrace();
-            // Use default values if file loading fails
-            config = Map.of(
-                    "screenshot.dir", "target/screenshots",
-                    "htmlReport.path", "target/custom-reports/execution-report.html",
-                    "browser", "chrome",
-                    "baseUrl", "https://google.com",
-                    "timeout", 30
-            );
-        }
+    /**
+     * Re-reads config.yml and its overrides and swaps them in. If they are invalid, the last good
+     * configuration is kept.
+     *
+     * @return True if the new configuration was applied.
+     */
+    public static boolean reload() {
+        return FluxionConfig.reload();
     }
 
     public static String getConfig(String key) {
-        Object value = config.get(key);
-        return value != null ? value.toString() : null;
+        return FluxionConfig.get().getString(key);
     }
 
     public static String getNestedConfig(String parentKey, String childKey) {
-        Object parent = config.get(parentKey);
-        if (parent instanceof Map) {
-            Object childValue = ((Map<?, ?>) parent).get(childKey);
-            return childValue != null ? childValue.toString() : null;
-        }
-        return null;
+        return FluxionConfig.get().getString(parentKey + "." + childKey);
+    }
+
+    /**
+     * Retrieves a mapping section of the configuration, e.g. {@code locatorDir}.
+     *
+     * @param key The section key.
+     * @return Child key to value as string, in file order; empty if the section is missing.
+     */
+    public static Map<String, String> getConfigSection(String key) {
+        return FluxionConfig.get().getSection(key);
     }
 }
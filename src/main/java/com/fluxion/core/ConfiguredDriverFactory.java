@@ -0,0 +1,168 @@
+package com.fluxion.core;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.net.URL;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * ConfiguredDriverFactory starts local or remote sessions with the options of a {@link DriverPreset}.
+ *
+ * <p>The preset is {@code -Dfluxion.driverPreset}, else {@code driver.preset} in config.yml, else {@code local}.
+ * Any of {@code driver.headless}, {@code driver.windowSize} ({@code 1920x1080}), {@code driver.disableImages},
+ * {@code driver.disableExtensions}, {@code driver.disableAnimations} and {@code driver.pageLoadStrategy}
+ * ({@code normal}, {@code eager} or {@code none}) overrides the preset. With {@code driver.remoteUrl} sessions
+ * are created on that Selenium Grid, or on anything speaking the W3C protocol such as a local stub server.</p>
+ *
+ * <p>Session start times are recorded under {@code driver.start} with the preset in the label, so runs with
+ * different presets can be compared in {@code metrics.json}.</p>
+ */
+public class ConfiguredDriverFactory implements DriverFactory {
+    private static final Logger logger = LogManager.getLogger(ConfiguredDriverFactory.class);
+
+    private final DriverPreset preset;
+
+    public ConfiguredDriverFactory(DriverPreset preset) {
+        this.preset = preset;
+    }
+
+    /**
+     * Creates a factory from the {@code driver} section of config.yml.
+     *
+     * @return The configured factory.
+     */
+    public static ConfiguredDriverFactory fromConfig() {
+        FluxionConfig config = FluxionConfig.get();
+        // Validated as a choice, also when set by -Dfluxion.driverPreset, when the configuration was loaded
+        DriverPreset base = DriverPreset.named(config.getString("driver.preset"));
+        DriverPreset preset = new DriverPreset(base.name(),
+                config.isSet("driver.headless") ? config.getBoolean("driver.headless") : base.headless(),
+                config.isSet("driver.windowSize") ? config.getDimension("driver.windowSize") : base.windowSize(),
+                config.isSet("driver.disableImages") ? config.getBoolean("driver.disableImages") : base.disableImages(),
+                config.isSet("driver.disableExtensions") ? config.getBoolean("driver.disableExtensions") : base.disableExtensions(),
+                config.isSet("driver.disableAnimations") ? config.getBoolean("driver.disableAnimations") : base.disableAnimations(),
+                config.isSet("driver.pageLoadStrategy")
+                        ? config.getEnum("driver.pageLoadStrategy", PageLoadStrategy.class) : base.pageLoadStrategy(),
+                config.isSet("driver.remoteUrl") ? config.getUrl("driver.remoteUrl") : base.remoteUrl());
+        logger.info("Driver preset: {}", preset);
+        return new ConfiguredDriverFactory(preset);
+    }
+
+    public DriverPreset getPreset() {
+        return preset;
+    }
+
+    @Override
+    public WebDriver create(String browser) {
+        String type = browser.toLowerCase(Locale.ROOT);
+        Capabilities options = options(type);
+        WebDriver driver;
+        URL remoteUrl = preset.remoteUrl();
+        if (remoteUrl != null) {
+            driver = new RemoteWebDriver(remoteUrl, options);
+        } else {
+            driver = switch (type) {
+                case "firefox" -> new FirefoxDriver((FirefoxOptions) options);
+                case "edge" -> new EdgeDriver((EdgeOptions) options);
+                default -> new ChromeDriver((ChromeOptions) options);
+            };
+        }
+
+        try {
+            if (preset.windowSize() != null) {
+                driver.manage().window().setSize(preset.windowSize());
+            } else if (!preset.headless()) {
+                driver.manage().window().maximize();
+            }
+            // Waiting is done explicitly by WaitEngine; an implicit wait would delay every negative check
+            driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        } catch (RuntimeException e) {
+            // The session is not handed out, so nothing else would ever quit it
+            try {
+                driver.quit();
+            } catch (RuntimeException quitFailure) {
+                e.addSuppressed(quitFailure);
+            }
+            throw e;
+        }
+        return driver;
+    }
+
+    @Override
+    public String describe(String browser) {
+        return browser + "/" + preset.label();
+    }
+
+    /**
+     * Builds the browser options for this preset.
+     *
+     * @param browser Browser type, e.g. "chrome", "firefox" or "edge".
+     * @return The options, also used as capabilities for a remote session.
+     */
+    public Capabilities options(String browser) {
+        return switch (browser.toLowerCase(Locale.ROOT)) {
+            case "firefox" -> firefoxOptions();
+            case "edge" -> chromiumOptions(new EdgeOptions());
+            default -> chromiumOptions(new ChromeOptions());
+        };
+    }
+
+    private <T extends ChromiumOptions<T>> T chromiumOptions(T options) {
+        options.setPageLoadStrategy(preset.pageLoadStrategy());
+        if (preset.headless()) {
+            options.addArguments("--headless=new");
+        }
+        Dimension size = preset.windowSize();
+        if (size != null) {
+            options.addArguments("--window-size=" + size.getWidth() + "," + size.getHeight());
+        }
+        if (preset.disableExtensions()) {
+            options.addArguments("--disable-extensions");
+        }
+        if (preset.disableAnimations()) {
+            options.addArguments("--force-prefers-reduced-motion", "--disable-smooth-scrolling");
+        }
+        if (preset.disableImages()) {
+            options.setExperimentalOption("prefs", Map.of("profile.managed_default_content_settings.images", 2));
+        }
+        return options;
+    }
+
+    private FirefoxOptions firefoxOptions() {
+        FirefoxOptions options = new FirefoxOptions();
+        options.setPageLoadStrategy(preset.pageLoadStrategy());
+        if (preset.headless()) {
+            options.addArguments("-headless");
+        }
+        Dimension size = preset.windowSize();
+        if (size != null) {
+            options.addArguments("--width=" + size.getWidth(), "--height=" + size.getHeight());
+        }
+        if (preset.disableAnimations()) {
+            options.addPreference("ui.prefersReducedMotion", 1);
+            options.addPreference("toolkit.cosmeticAnimations.enabled", false);
+        }
+        if (preset.disableImages()) {
+            options.addPreference("permissions.default.image", 2);
+        }
+        if (preset.disableExtensions()) {
+            options.addPreference("extensions.enabledScopes", 0);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,28 @@
+package com.fluxion.core;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * DriverFactory creates new WebDriver sessions for a browser type.
+ * The pool calls it whenever it needs a fresh session, so tests can plug in a stub factory
+ * and exercise the pool without launching a real browser.
+ */
+@FunctionalInterface
+public interface DriverFactory {
+
+    /**
+     * Starts a new WebDriver session.
+     *
+     * @param browser Browser type as configured, e.g. "chrome", "firefox" or "edge".
+     * @return A new, ready to use WebDriver session.
+     */
+    WebDriver create(String browser);
+
+    /**
+     * @param browser Browser type as configured.
+     * @return A label for the sessions this factory creates, used in metrics; the browser type by default.
+     */
+    default String describe(String browser) {
+        return browser;
+    }
+}
@@ -1,43 +1,159 @@
 package com.fluxion.core;
 
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.edge.EdgeDriver;
-import org.openqa.selenium.firefox.FirefoxDriver;
 
-import java.time.Duration;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * DriverManager leases WebDriver sessions to scenarios.
+ *
+ * <p>Sessions are leased from a per-browser {@link DriverPool} instead of being started and quit
+ * for every scenario. Pool bounds are read from the {@code driverPool} section of config.yml.
+ * Scenarios hold their session in their {@code ScenarioContext} and use {@link #lease(String)} and
+ * {@link #release(WebDriver)}; {@link #initializeDriver(String)} and {@link #getDriver()} remain for code
+ * that keeps the session on the current thread. New sessions are filtered by the {@code network} policy
+ * ({@link NetworkFilter}).</p>
+ */
 public class DriverManager {
     private static final ThreadLocal<WebDriver> driver = new ThreadLocal<>();
+    private static final Map<WebDriver, DriverPool> leases = new ConcurrentHashMap<>();
+    private static final Map<String, DriverPool> pools = new ConcurrentHashMap<>();
+    // Created on first use rather than when this class loads, so a factory set by setDriverFactory is the only one
+    private static volatile DriverFactory driverFactory;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverManager::shutdown, "fluxion-driver-shutdown"));
+    }
+
+    /**
+     * Leases a session from the browser's pool, waiting up to {@code driverPool.leaseTimeoutSeconds}.
+     *
+     * @param browser Browser type.
+     * @return The session; hand it back with {@link #release(WebDriver)}.
+     */
+    public static WebDriver lease(String browser) {
+        long started = LatencyMetrics.start();
+        DriverPool pool = getPool(browser);
+        WebDriver leased = pool.lease(FluxionConfig.get().getDuration("driverPool.leaseTimeoutSeconds"));
+        leases.put(leased, pool);
+        // Count the traffic of this lease only
+        NetworkFilter.take(leased);
+        LatencyMetrics.record("driver.lease", browser, started);
+        return leased;
+    }
+
+    /**
+     * Returns a leased session to its pool, where it is reset for the next scenario.
+     *
+     * @param session The session from {@link #lease(String)}.
+     */
+    public static void release(WebDriver session) {
+        DriverPool pool = session != null ? leases.remove(session) : null;
+        if (pool != null) {
+            long started = LatencyMetrics.start();
+            pool.release(session);
+            LatencyMetrics.record("driver.release", null, started);
+        }
+    }
+
+    /**
+     * Quits a leased session instead of returning it to the pool, e.g. after the browser crashed.
+     *
+     * @param session The session from {@link #lease(String)}.
+     */
+    public static void discard(WebDriver session) {
+        DriverPool pool = session != null ? leases.remove(session) : null;
+        if (pool != null) {
+            pool.evict(session);
+        }
+    }
+
+    /**
+     * @param session A session from {@link #lease(String)}.
+     * @return The label of its browser and driver preset, e.g. {@code chrome/ci}, as used in metrics; null if
+     * the session is not leased.
+     */
+    public static String describe(WebDriver session) {
+        DriverPool pool = session != null ? leases.get(session) : null;
+        return pool != null ? pool.describe() : null;
+    }
 
     public static void initializeDriver(String browser) {
         if (Objects.nonNull(driver.get())) {
             return;
         }
-        switch (browser.toLowerCase()) {
-            case "firefox":
-                driver.set(new FirefoxDriver());
-                break;
-            case "edge":
-                driver.set(new EdgeDriver());
-                break;
-            default:
-                driver.set(new ChromeDriver());
-        }
-
-        driver.get().manage().window().maximize();
-        driver.get().manage().timeouts().implicitlyWait(Duration.ofSeconds(20));
+        driver.set(lease(browser));
     }
 
     public static WebDriver getDriver() {
         return driver.get();
     }
 
+    /**
+     * Returns the current thread's session to the pool, where it is reset for the next scenario.
+     */
     public static void quitDriver() {
-        if (Objects.nonNull(driver.get())) {
-            driver.get().quit();
-            driver.remove();
+        release(driver.get());
+        driver.remove();
+    }
+
+    /**
+     * Quits the current thread's session instead of returning it to the pool,
+     * e.g. after the browser crashed.
+     */
+    public static void discardDriver() {
+        discard(driver.get());
+        driver.remove();
+    }
+
+    /**
+     * Starts the configured number of idle sessions ({@code driverPool.prewarm}) ahead of the first scenario.
+     *
+     * @param browser Browser type to pre-warm.
+     */
+    public static void prewarm(String browser) {
+        int count = FluxionConfig.get().getInt("driverPool.prewarm");
+        if (count > 0) {
+            getPool(browser).prewarm(count);
+        }
+    }
+
+    /**
+     * Replaces the factory used for new sessions. Pools created before the call keep their factory.
+     *
+     * @param factory Factory for new sessions, e.g. a stub for tests.
+     */
+    public static void setDriverFactory(DriverFactory factory) {
+        driverFactory = Objects.requireNonNull(factory);
+    }
+
+    /**
+     * Quits every pooled session. Called at the end of the run.
+     */
+    public static void shutdown() {
+        pools.values().forEach(DriverPool::shutdown);
+        pools.clear();
+        leases.clear();
+    }
+
+    private static DriverFactory getDriverFactory() {
+        DriverFactory factory = driverFactory;
+        if (factory == null) {
+            synchronized (DriverManager.class) {
+                if (driverFactory == null) {
+                    driverFactory = ConfiguredDriverFactory.fromConfig();
+                }
+                factory = driverFactory;
+            }
         }
+        return factory;
+    }
+
+    static DriverPool getPool(String browser) {
+        return pools.computeIfAbsent(browser.toLowerCase(), key -> new DriverPool(key, NetworkFilter.wrap(getDriverFactory()),
+                FluxionConfig.get().getInt("driverPool.maxSize"),
+                FluxionConfig.get().getInt("driverPool.maxUses")));
     }
 }
@@ -0,0 +1,245 @@
+package com.fluxion.core;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DriverPool keeps a bounded set of WebDriver sessions for one browser type and hands them out
+ * with lease/release semantics.
+ *
+ * <p>Every live session (leased or idle) holds one permit, so the pool never runs more than
+ * {@code maxSize} browsers. Released sessions are reset (cookies, storage, extra windows, about:blank)
+ * before they go back to the idle queue; sessions that fail the reset or health check, or that
+ * reached {@code maxUses} leases, are quit and their permit is freed.</p>
+ */
+public class DriverPool {
+    private static final Logger logger = LogManager.getLogger(DriverPool.class);
+    private static final long IDLE_POLL_MILLIS = 50;
+
+    private final String browser;
+    private final DriverFactory factory;
+    private final int maxSize;
+    private final int maxUses;
+    private final Semaphore permits;
+    private final BlockingDeque<WebDriver> idle = new LinkedBlockingDeque<>();
+    private final Map<WebDriver, AtomicInteger> sessions = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    /**
+     * Creates an empty pool.
+     *
+     * @param browser Browser type passed to the factory.
+     * @param factory Factory used to start new sessions.
+     * @param maxSize Maximum number of live sessions, leased and idle together.
+     * @param maxUses Number of leases after which a session is quit instead of reused.
+     */
+    public DriverPool(String browser, DriverFactory factory, int maxSize, int maxUses) {
+        if (maxSize < 1 || maxUses < 1) {
+            throw new IllegalArgumentException("Driver pool size and max uses must be positive");
+        }
+        this.browser = browser;
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.maxUses = maxUses;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * @return The label of the sessions this pool starts, e.g. {@code chrome/ci}.
+     */
+    public String describe() {
+        return factory.describe(browser);
+    }
+
+    /**
+     * Leases a session, reusing an idle one when possible and starting a new one while below the bound.
+     *
+     * @param timeout How long to wait for a session when the pool is exhausted.
+     * @return A healthy session owned by the caller until {@link #release(WebDriver)}.
+     */
+    public WebDriver lease(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            while (!closed) {
+                WebDriver driver = idle.pollFirst();
+                if (driver == null && permits.tryAcquire()) {
+                    driver = startSession();
+                }
+                if (driver == null) {
+                    driver = idle.pollFirst(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                if (driver != null) {
+                    if (isHealthy(driver)) {
+                        sessions.get(driver).incrementAndGet();
+                        return driver;
+                    }
+                    logger.warn("Evicting unhealthy {} session on lease", browser);
+                    evict(driver);
+                    continue;
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Timed out after " + timeout + " waiting for a "
+                            + browser + " session (pool size " + maxSize + ")");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a " + browser + " session", e);
+        }
+        throw new IllegalStateException("Driver pool for " + browser + " is shut down");
+    }
+
+    /**
+     * Returns a leased session to the pool. The session is reset for the next scenario,
+     * or evicted if it is worn out or the reset fails.
+     *
+     * @param driver The session obtained from {@link #lease(Duration)}.
+     */
+    public void release(WebDriver driver) {
+        AtomicInteger uses = sessions.get(driver);
+        if (uses == null) {
+            logger.warn("Ignoring release of a {} session not owned by this pool", browser);
+            return;
+        }
+        if (closed || uses.get() >= maxUses) {
+            logger.debug("Retiring {} session after {} uses", browser, uses.get());
+            evict(driver);
+            return;
+        }
+        try {
+            reset(driver);
+            idle.offerFirst(driver);
+        } catch (Exception e) {
+            logger.warn("Evicting {} session that failed to reset: {}", browser, e.getMessage());
+            evict(driver);
+        }
+    }
+
+    /**
+     * Quits a session and frees its slot in the pool.
+     *
+     * @param driver The session to discard.
+     */
+    public void evict(WebDriver driver) {
+        idle.remove(driver);
+        if (sessions.remove(driver) == null) {
+            return;
+        }
+        permits.release();
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            logger.debug("Ignoring failure while quitting evicted {} session: {}", browser, e.getMessage());
+        }
+    }
+
+    /**
+     * Starts sessions in parallel until {@code count} idle sessions exist or the pool is full.
+     *
+     * @param count Number of idle sessions wanted.
+     */
+    public void prewarm(int count) {
+        int wanted = Math.min(count, maxSize) - idle.size();
+        if (wanted <= 0) {
+            return;
+        }
+        logger.info("Pre-warming {} {} session(s)", wanted, browser);
+        ExecutorService starter = Executors.newFixedThreadPool(wanted);
+        try {
+            List<Future<?>> starts = new ArrayList<>();
+            for (int i = 0; i < wanted; i++) {
+                starts.add(starter.submit(() -> {
+                    if (permits.tryAcquire()) {
+                        idle.offerLast(startSession());
+                    }
+                }));
+            }
+            for (Future<?> start : starts) {
+                start.get();
+            }
+        } catch (Exception e) {
+            logger.warn("Pre-warming {} sessions did not complete: {}", browser, e.getMessage());
+        } finally {
+            starter.shutdown();
+        }
+    }
+
+    /**
+     * Quits every session owned by the pool and rejects further leases.
+     */
+    public void shutdown() {
+        closed = true;
+        for (WebDriver driver : List.copyOf(sessions.keySet())) {
+            evict(driver);
+        }
+    }
+
+    public int liveCount() {
+        return sessions.size();
+    }
+
+    public int idleCount() {
+        return idle.size();
+    }
+
+    private WebDriver startSession() {
+        long started = LatencyMetrics.start();
+        try {
+            WebDriver driver = factory.create(browser);
+            sessions.put(driver, new AtomicInteger());
+            return driver;
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        } finally {
+            LatencyMetrics.record("driver.start", factory.describe(browser), started);
+        }
+    }
+
+    private boolean isHealthy(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Brings a session back to a blank state: closes extra windows, clears cookies and web storage
+     * and navigates to about:blank.
+     */
+    private void reset(WebDriver driver) {
+        List<String> handles = new ArrayList<>(driver.getWindowHandles());
+        for (int i = 1; i < handles.size(); i++) {
+            driver.switchTo().window(handles.get(i)).close();
+        }
+        driver.switchTo().window(handles.get(0));
+        driver.manage().deleteAllCookies();
+        if (driver instanceof JavascriptExecutor js) {
+            try {
+                js.executeScript("window.localStorage.clear(); window.sessionStorage.clear();");
+            } catch (Exception e) {
+                // about:blank and data: pages have no storage to clear
+                logger.trace("Web storage not cleared: {}", e.getMessage());
+            }
+        }
+        driver.get("about:blank");
+    }
+}
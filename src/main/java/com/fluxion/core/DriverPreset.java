@@ -0,0 +1,55 @@
+package com.fluxion.core;
+
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.PageLoadStrategy;
+
+import java.net.URL;
+import java.util.Locale;
+
+/**
+ * DriverPreset is a named set of browser options used by {@link ConfiguredDriverFactory}.
+ *
+ * <p>Built-in presets:</p>
+ * <ul>
+ *     <li>{@code local}: a visible, maximised browser with default options.</li>
+ *     <li>{@code headless}: no visible window, a fixed 1920x1080 viewport.</li>
+ *     <li>{@code ci}: headless, and images, extensions and animations disabled, with the {@code eager}
+ *     page-load strategy, so a navigation returns once the DOM is ready.</li>
+ * </ul>
+ *
+ * @param name              The preset name, used in metrics labels.
+ * @param headless          True to run without a visible window.
+ * @param windowSize        A fixed window size, or null to maximise.
+ * @param disableImages     True to block image loading.
+ * @param disableExtensions True to start without browser extensions.
+ * @param disableAnimations True to ask pages to reduce motion and turn off browser animations.
+ * @param pageLoadStrategy  When a navigation returns.
+ * @param remoteUrl         A Selenium Grid URL, or null for a local browser.
+ */
+public record DriverPreset(String name, boolean headless, Dimension windowSize, boolean disableImages,
+                           boolean disableExtensions, boolean disableAnimations, PageLoadStrategy pageLoadStrategy,
+                           URL remoteUrl) {
+
+    private static final Dimension DEFAULT_SIZE = new Dimension(1920, 1080);
+
+    /**
+     * @param name A built-in preset name, in any case.
+     * @return The preset.
+     * @throws IllegalArgumentException if there is no such preset.
+     */
+    public static DriverPreset named(String name) {
+        return switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "local" -> new DriverPreset("local", false, null, false, false, false, PageLoadStrategy.NORMAL, null);
+            case "headless" -> new DriverPreset("headless", true, DEFAULT_SIZE, false, false, false, PageLoadStrategy.NORMAL, null);
+            case "ci" -> new DriverPreset("ci", true, DEFAULT_SIZE, true, true, true, PageLoadStrategy.EAGER, null);
+            default -> throw new IllegalArgumentException("Unknown driver preset '" + name + "', expected local, headless or ci");
+        };
+    }
+
+    /**
+     * @return A label for metrics and logs, e.g. {@code ci@remote}.
+     */
+    public String label() {
+        return remoteUrl != null ? name + "@remote" : name;
+    }
+}
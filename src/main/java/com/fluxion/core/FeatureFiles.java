@@ -0,0 +1,124 @@
+package com.fluxion.core;
+
+import io.cucumber.gherkin.GherkinParser;
+import io.cucumber.messages.types.Background;
+import io.cucumber.messages.types.Envelope;
+import io.cucumber.messages.types.Feature;
+import io.cucumber.messages.types.FeatureChild;
+import io.cucumber.messages.types.GherkinDocument;
+import io.cucumber.messages.types.Rule;
+import io.cucumber.messages.types.RuleChild;
+import io.cucumber.messages.types.Scenario;
+import io.cucumber.messages.types.Step;
+import io.cucumber.messages.types.TableRow;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * FeatureFiles parses Gherkin feature files for the framework's own use, e.g. to find a scenario's Background.
+ *
+ * <p>Files are addressed by the URI Cucumber reports for a scenario ({@code file:} or {@code classpath:}) and
+ * parsed once per run.</p>
+ */
+public final class FeatureFiles {
+    private static final GherkinParser PARSER = GherkinParser.builder()
+            .includeSource(false)
+            .includePickles(false)
+            .build();
+    private static final Map<URI, Optional<GherkinDocument>> documents = new ConcurrentHashMap<>();
+
+    private FeatureFiles() {
+    }
+
+    /**
+     * @param uri The feature file, as {@code file:} or {@code classpath:} URI.
+     * @return The parsed document.
+     * @throws IllegalArgumentException if the file does not exist or is not valid Gherkin.
+     */
+    public static GherkinDocument parse(URI uri) {
+        return documents.computeIfAbsent(uri, FeatureFiles::read)
+                .orElseThrow(() -> new IllegalArgumentException("Not a valid feature file: " + uri));
+    }
+
+    /**
+     * Returns the Background steps that run before a scenario: the feature's Background, then the Background
+     * of the scenario's Rule, if any.
+     *
+     * @param uri  The feature file.
+     * @param line The scenario's line, or the line of its Examples row.
+     * @return The steps in execution order; empty if there is no Background.
+     */
+    public static List<Step> backgroundSteps(URI uri, int line) {
+        List<Step> steps = new ArrayList<>();
+        Optional<Feature> feature = parse(uri).getFeature();
+        if (feature.isEmpty()) {
+            return steps;
+        }
+        for (FeatureChild child : feature.get().getChildren()) {
+            child.getBackground().map(Background::getSteps).ifPresent(steps::addAll);
+            child.getRule().filter(rule -> contains(rule, line)).ifPresent(rule -> rule.getChildren().stream()
+                    .map(RuleChild::getBackground)
+                    .flatMap(Optional::stream)
+                    .forEach(background -> steps.addAll(background.getSteps())));
+        }
+        return steps;
+    }
+
+    /**
+     * @param step A step.
+     * @return The step as written, with any data table rows, e.g. {@code And I click on "Login"}.
+     */
+    public static String text(Step step) {
+        StringBuilder text = new StringBuilder(step.getKeyword().trim()).append(' ').append(step.getText());
+        step.getDataTable().ifPresent(table -> table.getRows().forEach(row -> {
+            text.append("\n|");
+            row.getCells().forEach(cell -> text.append(' ').append(cell.getValue()).append(" |"));
+        }));
+        step.getDocString().ifPresent(docString -> text.append("\n").append(docString.getContent()));
+        return text.toString();
+    }
+
+    private static boolean contains(Rule rule, int line) {
+        for (RuleChild child : rule.getChildren()) {
+            Optional<Scenario> scenario = child.getScenario();
+            if (scenario.isPresent() && (scenario.get().getLocation().getLine() == line || scenario.get().getExamples()
+                    .stream().flatMap(examples -> examples.getTableBody().stream())
+                    .map(TableRow::getLocation).anyMatch(location -> location.getLine() == line))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Optional<GherkinDocument> read(URI uri) {
+        try (InputStream in = open(uri)) {
+            return PARSER.parse(uri.toString(), in)
+                    .map(Envelope::getGherkinDocument)
+                    .flatMap(Optional::stream)
+                    .findFirst();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to read feature file: " + uri, e);
+        }
+    }
+
+    private static InputStream open(URI uri) throws IOException {
+        if ("classpath".equals(uri.getScheme())) {
+            String resource = uri.getSchemeSpecificPart().replaceFirst("^/", "");
+            InputStream in = FeatureFiles.class.getClassLoader().getResourceAsStream(resource);
+            if (in == null) {
+                throw new IOException("No such resource on the classpath: " + resource);
+            }
+            return in;
+        }
+        return Files.newInputStream("file".equals(uri.getScheme()) ? Path.of(uri) : Path.of(uri.toString()));
+    }
+}
@@ -0,0 +1,710 @@
+package com.fluxion.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.PageLoadStrategy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * FluxionConfig is the framework configuration, read once into an immutable, validated snapshot.
+ *
+ * <p>Layers, lowest first:</p>
+ * <ol>
+ *     <li>The base file: {@code -Dfluxion.config} or {@code FLUXION_CONFIG}, else
+ *     {@code src/test/resources/config/config.yml} if it exists, else {@code config/config.yml} on the classpath.</li>
+ *     <li>The profile file {@code config-<profile>.yml} next to it, for {@code -Dfluxion.profile},
+ *     {@code FLUXION_PROFILE} or the base file's {@code profile} key.</li>
+ *     <li>Environment variables {@code FLUXION_CONFIG_<SECTION>_<KEY>}, matched to existing keys ignoring case,
+ *     e.g. {@code FLUXION_CONFIG_DRIVERPOOL_MAXSIZE=8}.</li>
+ *     <li>System properties {@code -Dfluxion.config.<section>.<key>}, e.g. {@code -Dfluxion.config.timeout=60}.</li>
+ *     <li>Short system properties for settings often changed per run, e.g. {@code -Dfluxion.threads=8} for
+ *     {@code parallel.threads}; see {@link #SHORT_PROPERTIES}.</li>
+ * </ol>
+ *
+ * <p>Known settings are checked when the snapshot is built and kept as typed values (ints, durations, paths,
+ * enums), with their defaults filled in, so lookups neither parse nor convert. Every invalid value is reported
+ * at once. {@link ConfigManager} offers the same snapshot as strings.</p>
+ */
+public final class FluxionConfig {
+    private static final Logger logger = LogManager.getLogger(FluxionConfig.class);
+    public static final String DEFAULT_FILE = "src/test/resources/config/config.yml";
+    public static final String CLASSPATH_RESOURCE = "config/config.yml";
+    public static final String PROPERTY_PREFIX = "fluxion.config.";
+    public static final String ENV_PREFIX = "FLUXION_CONFIG_";
+
+    /**
+     * Short system property to the setting it overrides. They are validated like every other layer.
+     */
+    public static final Map<String, String> SHORT_PROPERTIES = Map.ofEntries(
+            Map.entry("fluxion.threads", "parallel.threads"),
+            Map.entry("fluxion.sessions", "parallel.sessions"),
+            Map.entry("fluxion.order", "parallel.order"),
+            Map.entry("fluxion.failedFirst", "selection.failedFirst"),
+            Map.entry("fluxion.onlyFailed", "selection.onlyFailed"),
+            Map.entry("fluxion.changedSince", "selection.changedSince"),
+            Map.entry("fluxion.driverPreset", "driver.preset"),
+            Map.entry("fluxion.elementCache", "elementCache"),
+            Map.entry("fluxion.lazyLocators", "lazyLocators"),
+            Map.entry("fluxion.locatorCache", "locatorCache.enabled"),
+            Map.entry("fluxion.hotReload", "hotReload"),
+            Map.entry("fluxion.validateFeatures", "validateFeatures"),
+            Map.entry("fluxion.sessionCache", "sessionCache.enabled"),
+            Map.entry("fluxion.metrics", "metrics.enabled"));
+
+    private static final ObjectMapper YAML = new ObjectMapper(new YAMLFactory());
+    private static final Map<String, Setting> SETTINGS = settings();
+    private static final ReentrantLock loadLock = new ReentrantLock();
+    private static volatile FluxionConfig current;
+
+    private final Path source;
+    private final String profile;
+    private final Map<String, Object> tree;
+    private final Map<String, String> values;
+    private final Map<String, Map<String, String>> sections;
+    private final Map<String, Object> typed;
+
+    private enum Type { INT, BOOLEAN, DECIMAL, SECONDS, MILLIS, PATH, CHOICE, ENUM, SIZE, URL, LIST, STRING }
+
+    private record Setting(String path, Type type, Object defaultValue, double min, double max, Set<String> choices,
+                           Class<? extends Enum<?>> enumType) {
+    }
+
+    private FluxionConfig(Path source, String profile, Map<String, Object> tree, Map<String, String> values,
+                          Map<String, Map<String, String>> sections, Map<String, Object> typed) {
+        this.source = source;
+        this.profile = profile;
+        this.tree = tree;
+        this.values = values;
+        this.sections = sections;
+        this.typed = typed;
+    }
+
+    private static Map<String, Setting> settings() {
+        Map<String, Setting> settings = new LinkedHashMap<>();
+        choice(settings, "browser", "chrome", "chrome", "firefox", "edge");
+        setting(settings, "timeout", Type.SECONDS, 30, 0, Double.MAX_VALUE);
+        setting(settings, "wait.pollMillis", Type.MILLIS, 50, 1, Double.MAX_VALUE);
+        setting(settings, "wait.maxPollMillis", Type.MILLIS, 500, 1, Double.MAX_VALUE);
+        setting(settings, "wait.backoff", Type.DECIMAL, 1.5, 1, Double.MAX_VALUE);
+        setting(settings, "waitTimeouts.*", Type.SECONDS, null, 0, Double.MAX_VALUE);
+        setting(settings, "screenshot.dir", Type.PATH, "target/screenshots", 0, 0);
+        setting(settings, "screenshot.writerThreads", Type.INT, 2, 1, Integer.MAX_VALUE);
+        setting(settings, "screenshot.queueSize", Type.INT, 64, 1, Integer.MAX_VALUE);
+        setting(settings, "screenshot.dedupe", Type.BOOLEAN, true, 0, 0);
+        setting(settings, "screenshot.maxWidth", Type.INT, 0, 0, Integer.MAX_VALUE);
+        choice(settings, "screenshot.format", "png", "png", "jpg", "jpeg");
+        setting(settings, "screenshot.quality", Type.DECIMAL, 0.8, 0, 1);
+        setting(settings, "htmlReport.outputFilePath", Type.PATH, "target/reports/", 0, 0);
+        setting(settings, "locatorDir.*", Type.PATH, null, 0, 0);
+        setting(settings, "driverPool.maxSize", Type.INT, 4, 1, Integer.MAX_VALUE);
+        setting(settings, "driverPool.maxUses", Type.INT, 50, 1, Integer.MAX_VALUE);
+        setting(settings, "driverPool.prewarm", Type.INT, 0, 0, Integer.MAX_VALUE);
+        setting(settings, "driverPool.leaseTimeoutSeconds", Type.SECONDS, 120, 0, Double.MAX_VALUE);
+        setting(settings, "hotReload", Type.BOOLEAN, false, 0, 0);
+        setting(settings, "lazyLocators", Type.BOOLEAN, false, 0, 0);
+        setting(settings, "validateFeatures", Type.BOOLEAN, false, 0, 0);
+        setting(settings, "locatorCache.enabled", Type.BOOLEAN, true, 0, 0);
+        setting(settings, "locatorCache.file", Type.PATH, LocatorCache.DEFAULT_FILE, 0, 0);
+        setting(settings, "elementCache", Type.BOOLEAN, false, 0, 0);
+        setting(settings, "parallel.threads", Type.INT, 4, 1, Integer.MAX_VALUE);
+        setting(settings, "parallel.sessions", Type.INT, null, 1, Integer.MAX_VALUE);
+        settings.put("parallel.order", new Setting("parallel.order", Type.ENUM, ScenarioScheduler.Order.SCENARIO,
+                0, 0, null, ScenarioScheduler.Order.class));
+        setting(settings, "selection.failedFirst", Type.BOOLEAN, true, 0, 0);
+        setting(settings, "selection.onlyFailed", Type.BOOLEAN, false, 0, 0);
+        setting(settings, "selection.changedSince", Type.STRING, null, 0, 0);
+        setting(settings, "metrics.enabled", Type.BOOLEAN, true, 0, 0);
+        setting(settings, "metrics.dir", Type.PATH, LatencyMetrics.DEFAULT_DIR, 0, 0);
+        choice(settings, "driver.preset", "local", "local", "headless", "ci");
+        setting(settings, "driver.headless", Type.BOOLEAN, null, 0, 0);
+        setting(settings, "driver.windowSize", Type.SIZE, null, 0, 0);
+        setting(settings, "driver.disableImages", Type.BOOLEAN, null, 0, 0);
+        setting(settings, "driver.disableExtensions", Type.BOOLEAN, null, 0, 0);
+        setting(settings, "driver.disableAnimations", Type.BOOLEAN, null, 0, 0);
+        settings.put("driver.pageLoadStrategy", new Setting("driver.pageLoadStrategy", Type.ENUM, null,
+                0, 0, null, PageLoadStrategy.class));
+        setting(settings, "driver.remoteUrl", Type.URL, null, 0, 0);
+        setting(settings, "network.enabled", Type.BOOLEAN, false, 0, 0);
+        setting(settings, "network.block", Type.LIST, null, 0, 0);
+        setting(settings, "network.allow", Type.LIST, null, 0, 0);
+        setting(settings, "networkStubs.*", Type.PATH, null, 0, 0);
+        setting(settings, "sessionCache.enabled", Type.BOOLEAN, true, 0, 0);
+        setting(settings, "sessionCache.ttlSeconds", Type.SECONDS, 900, 0, Double.MAX_VALUE);
+        return Collections.unmodifiableMap(settings);
+    }
+
+    private static void setting(Map<String, Setting> settings, String path, Type type, Object defaultValue,
+                                double min, double max) {
+        settings.put(path, new Setting(path, type, defaultValue, min, max, null, null));
+    }
+
+    private static void choice(Map<String, Setting> settings, String path, String defaultValue, String... choices) {
+        settings.put(path, new Setting(path, Type.CHOICE, defaultValue, 0, 0, Set.of(choices), null));
+    }
+
+    /**
+     * @return The current snapshot, loaded on first use.
+     * @throws IllegalStateException if the configuration is invalid.
+     */
+    public static FluxionConfig get() {
+        FluxionConfig config = current;
+        if (config == null) {
+            loadLock.lock();
+            try {
+                if (current == null) {
+                    current = load();
+                }
+                config = current;
+            } finally {
+                loadLock.unlock();
+            }
+        }
+        return config;
+    }
+
+    /**
+     * Re-reads every layer and swaps the new snapshot in. If it is invalid, the last good snapshot is kept.
+     *
+     * @return True if the new configuration was applied.
+     */
+    public static boolean reload() {
+        try {
+            FluxionConfig config = load();
+            loadLock.lock();
+            try {
+                current = config;
+            } finally {
+                loadLock.unlock();
+            }
+            return true;
+        } catch (RuntimeException e) {
+            logger.error("Keeping last good configuration, reload failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Builds a snapshot from the configured base file, profile, environment and system properties.
+     *
+     * @return The snapshot.
+     * @throws IllegalStateException if a file cannot be read or a value is invalid.
+     */
+    public static FluxionConfig load() {
+        String explicit = firstNonBlank(System.getProperty("fluxion.config"), System.getenv("FLUXION_CONFIG"));
+        Path path = explicit != null ? Path.of(explicit) : Files.isRegularFile(Path.of(DEFAULT_FILE)) ? Path.of(DEFAULT_FILE) : null;
+        return load(path, System.getenv(), System.getProperties());
+    }
+
+    /**
+     * Builds a snapshot from the given base file and overrides.
+     *
+     * @param file       The base file, or null to use {@code config/config.yml} from the classpath.
+     * @param env        Environment variables.
+     * @param properties System properties.
+     * @return The snapshot.
+     * @throws IllegalStateException if a file cannot be read or a value is invalid.
+     */
+    public static FluxionConfig load(Path file, Map<String, String> env, Properties properties) {
+        long start = System.nanoTime();
+        Path source = file;
+        Map<String, Object> tree = new LinkedHashMap<>();
+        if (file != null) {
+            merge(tree, readYaml(file));
+        } else {
+            URL resource = FluxionConfig.class.getClassLoader().getResource(CLASSPATH_RESOURCE);
+            if (resource != null) {
+                merge(tree, readYaml(resource));
+                source = toPath(resource);
+            } else {
+                logger.warn("No {} found in {} or on the classpath, using defaults", CLASSPATH_RESOURCE, DEFAULT_FILE);
+            }
+        }
+
+        String profile = firstNonBlank(properties.getProperty("fluxion.profile"), env.get("FLUXION_PROFILE"),
+                tree.get("profile") != null ? tree.get("profile").toString() : null);
+        if (profile != null) {
+            merge(tree, readProfile(source, profile));
+        }
+
+        env.forEach((name, value) -> {
+            if (name.startsWith(ENV_PREFIX)) {
+                List<String> resolved = resolveEnv(tree, name.substring(ENV_PREFIX.length()).split("_"));
+                if (resolved != null) {
+                    set(tree, resolved, value);
+                } else {
+                    logger.warn("Ignoring {}: no such configuration key", name);
+                }
+            }
+        });
+        properties.stringPropertyNames().stream().filter(name -> name.startsWith(PROPERTY_PREFIX)).sorted()
+                .forEach(name -> set(tree, List.of(name.substring(PROPERTY_PREFIX.length()).split("\\.")),
+                        properties.getProperty(name)));
+        new TreeMap<>(SHORT_PROPERTIES).forEach((name, path) -> {
+            String value = properties.getProperty(name);
+            if (value != null && !value.isBlank()) {
+                set(tree, List.of(path.split("\\.")), value);
+            }
+        });
+
+        FluxionConfig config = build(source, profile, tree);
+        logger.debug("Configuration loaded from {}{} in {} ms", source != null ? source : "defaults",
+                profile != null ? " with profile " + profile : "", (System.nanoTime() - start) / 1_000_000);
+        return config;
+    }
+
+    /**
+     * Reads a YAML file into plain maps, lists and scalars.
+     *
+     * @param file The YAML file.
+     * @return The top-level mapping; empty for an empty file.
+     * @throws IllegalStateException if the file cannot be read or is not a mapping.
+     */
+    public static Map<String, Object> readYaml(Path file) {
+        try {
+            return asMapping(YAML.readTree(file.toFile()), file.toString());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read configuration file: " + file, e);
+        }
+    }
+
+    private static Map<String, Object> readYaml(URL resource) {
+        try (InputStream in = resource.openStream()) {
+            return asMapping(YAML.readTree(in), resource.toString());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read configuration file: " + resource, e);
+        }
+    }
+
+    // An empty or comment-only file is an empty mapping
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMapping(JsonNode node, String name) {
+        if (node == null || node.isMissingNode() || node.isNull()) {
+            return new LinkedHashMap<>();
+        }
+        if (!node.isObject()) {
+            throw new IllegalStateException("Configuration file " + name + " must be a mapping");
+        }
+        return YAML.convertValue(node, LinkedHashMap.class);
+    }
+
+    private static Map<String, Object> readProfile(Path source, String profile) {
+        String name = "config-" + profile + ".yml";
+        if (source != null) {
+            Path file = source.resolveSibling(name);
+            if (Files.isRegularFile(file)) {
+                return readYaml(file);
+            }
+        }
+        URL resource = FluxionConfig.class.getClassLoader().getResource("config/" + name);
+        if (resource == null) {
+            throw new IllegalStateException("Configuration profile '" + profile + "' not found: " + name);
+        }
+        return readYaml(resource);
+    }
+
+    // Deep merge: mappings are merged key by key, anything else replaces the lower layer
+    @SuppressWarnings("unchecked")
+    private static void merge(Map<String, Object> target, Map<String, Object> layer) {
+        layer.forEach((key, value) -> {
+            Object existing = target.get(key);
+            if (existing instanceof Map && value instanceof Map) {
+                Map<String, Object> merged = new LinkedHashMap<>((Map<String, Object>) existing);
+                merge(merged, (Map<String, Object>) value);
+                target.put(key, merged);
+            } else if (value instanceof Map) {
+                Map<String, Object> copy = new LinkedHashMap<>();
+                merge(copy, (Map<String, Object>) value);
+                target.put(key, copy);
+            } else {
+                target.put(key, value);
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void set(Map<String, Object> tree, List<String> path, String value) {
+        Map<String, Object> node = tree;
+        for (int i = 0; i < path.size() - 1; i++) {
+            Object child = node.get(path.get(i));
+            if (!(child instanceof Map)) {
+                child = new LinkedHashMap<String, Object>();
+                node.put(path.get(i), child);
+            }
+            node = (Map<String, Object>) child;
+        }
+        node.put(path.get(path.size() - 1), value);
+    }
+
+    // Environment names are upper case; map each segment onto an existing key ignoring case
+    @SuppressWarnings("unchecked")
+    private static List<String> resolveEnv(Map<String, Object> tree, String[] segments) {
+        List<String> path = new ArrayList<>();
+        Object node = tree;
+        for (String segment : segments) {
+            if (!(node instanceof Map)) {
+                return null;
+            }
+            String match = null;
+            for (String key : ((Map<String, Object>) node).keySet()) {
+                if (key.equalsIgnoreCase(segment)) {
+                    match = key;
+                    break;
+                }
+            }
+            if (match == null) {
+                match = settingSegment(path, segment);
+                if (match == null) {
+                    return null;
+                }
+            }
+            path.add(match);
+            node = ((Map<String, Object>) node).get(match);
+        }
+        return path.isEmpty() ? null : path;
+    }
+
+    // A known setting that is not in the file yet, e.g. FLUXION_CONFIG_ELEMENTCACHE
+    private static String settingSegment(List<String> parent, String segment) {
+        String prefix = parent.isEmpty() ? "" : String.join(".", parent) + ".";
+        for (String setting : SETTINGS.keySet()) {
+            if (setting.startsWith(prefix)) {
+                String next = setting.substring(prefix.length()).split("\\.")[0];
+                if (next.equals("*")) {
+                    return segment.toLowerCase(Locale.ROOT);
+                }
+                if (next.equalsIgnoreCase(segment)) {
+                    return next;
+                }
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static FluxionConfig build(Path source, String profile, Map<String, Object> tree) {
+        Map<String, String> values = new LinkedHashMap<>();
+        Map<String, Map<String, String>> sections = new LinkedHashMap<>();
+        tree.forEach((key, value) -> {
+            values.put(key, value != null ? value.toString() : null);
+            if (value instanceof Map) {
+                Map<String, String> section = new LinkedHashMap<>();
+                ((Map<String, Object>) value).forEach((child, childValue) -> {
+                    String text = childValue != null ? childValue.toString() : null;
+                    section.put(String.valueOf(child), text);
+                    values.put(key + "." + child, text);
+                });
+                sections.put(key, Collections.unmodifiableMap(section));
+            }
+        });
+
+        Map<String, Object> typed = new LinkedHashMap<>();
+        List<String> errors = new ArrayList<>();
+        for (Setting setting : SETTINGS.values()) {
+            if (setting.path().endsWith(".*")) {
+                String section = setting.path().substring(0, setting.path().length() - 2);
+                sections.getOrDefault(section, Map.of()).forEach((child, text) -> {
+                    if (text != null && !text.isBlank()) {
+                        convert(setting, section + "." + child, text, typed, errors);
+                    }
+                });
+                continue;
+            }
+            if (setting.type() == Type.LIST) {
+                list(setting.path(), tree, typed, errors);
+                continue;
+            }
+            String text = values.get(setting.path());
+            if ((text == null || text.isBlank()) && setting.defaultValue() != null) {
+                Object defaultValue = setting.defaultValue();
+                text = defaultValue instanceof Enum<?> constant ? constant.name().toLowerCase(Locale.ROOT) : defaultValue.toString();
+                if (!values.containsKey(setting.path())) {
+                    // Pre-resolve defaults so string lookups see them too
+                    values.put(setting.path(), text);
+                }
+            }
+            if (text != null && !text.isBlank()) {
+                convert(setting, setting.path(), text, typed, errors);
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("Invalid configuration " + (source != null ? source : "")
+                    + (profile != null ? " (profile " + profile + ")" : "") + ":\n  " + String.join("\n  ", errors));
+        }
+        return new FluxionConfig(source, profile, Collections.unmodifiableMap(tree), Collections.unmodifiableMap(values),
+                Collections.unmodifiableMap(sections), Collections.unmodifiableMap(typed));
+    }
+
+    private static void convert(Setting setting, String path, String text, Map<String, Object> typed, List<String> errors) {
+        String value = text.trim();
+        try {
+            Object converted = switch (setting.type()) {
+                case INT -> checkRange(setting, path, Integer.parseInt(value));
+                case DECIMAL -> checkRange(setting, path, Double.parseDouble(value));
+                case SECONDS -> Duration.ofMillis(Math.round(checkRange(setting, path, Double.parseDouble(value)) * 1000));
+                case MILLIS -> Duration.ofMillis(Math.round(checkRange(setting, path, Double.parseDouble(value))));
+                case BOOLEAN -> {
+                    if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+                        throw new IllegalArgumentException("expected true or false");
+                    }
+                    yield Boolean.parseBoolean(value);
+                }
+                case PATH -> Path.of(value);
+                case CHOICE -> {
+                    String lower = value.toLowerCase(Locale.ROOT);
+                    if (!setting.choices().contains(lower)) {
+                        throw new IllegalArgumentException("expected one of " + new TreeSet<>(setting.choices()));
+                    }
+                    yield lower;
+                }
+                case ENUM -> enumValue(setting, value);
+                case SIZE -> size(value);
+                case URL -> url(value);
+                case STRING -> value;
+                case LIST -> throw new IllegalStateException("Lists are converted from the tree");
+            };
+            typed.put(path, converted);
+        } catch (IllegalArgumentException e) {
+            String reason = e instanceof NumberFormatException ? "expected a number" : e.getMessage();
+            errors.add(path + ": '" + text + "' is invalid, " + reason);
+        }
+    }
+
+    // A YAML sequence, or a comma-separated string from an environment variable or system property
+    @SuppressWarnings("unchecked")
+    private static void list(String path, Map<String, Object> tree, Map<String, Object> typed, List<String> errors) {
+        Object value = tree;
+        for (String segment : path.split("\\.")) {
+            value = value instanceof Map ? ((Map<String, Object>) value).get(segment) : null;
+        }
+        List<String> items = new ArrayList<>();
+        if (value instanceof List<?> sequence) {
+            sequence.stream().filter(Objects::nonNull).map(item -> item.toString().trim()).forEach(items::add);
+        } else if (value instanceof Map) {
+            errors.add(path + ": expected a list");
+            return;
+        } else if (value != null) {
+            for (String item : value.toString().split(",")) {
+                items.add(item.trim());
+            }
+        }
+        items.removeIf(String::isEmpty);
+        typed.put(path, List.copyOf(items));
+    }
+
+    private static <N extends Number> N checkRange(Setting setting, String path, N value) {
+        if (value.doubleValue() < setting.min() || value.doubleValue() > setting.max()) {
+            throw new IllegalArgumentException(setting.max() == Double.MAX_VALUE || setting.max() == Integer.MAX_VALUE
+                    ? "must be at least " + format(setting.min())
+                    : "must be between " + format(setting.min()) + " and " + format(setting.max()));
+        }
+        return value;
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+
+    private static Enum<?> enumValue(Setting setting, String value) {
+        String name = value.replace('-', '_').toUpperCase(Locale.ROOT);
+        for (Enum<?> constant : setting.enumType().getEnumConstants()) {
+            if (constant.name().equals(name)) {
+                return constant;
+            }
+        }
+        List<String> names = new ArrayList<>();
+        for (Enum<?> constant : setting.enumType().getEnumConstants()) {
+            names.add(constant.name().toLowerCase(Locale.ROOT));
+        }
+        throw new IllegalArgumentException("expected one of " + names);
+    }
+
+    private static Dimension size(String value) {
+        String[] parts = value.toLowerCase(Locale.ROOT).split("x");
+        try {
+            if (parts.length == 2) {
+                int width = Integer.parseInt(parts[0].trim());
+                int height = Integer.parseInt(parts[1].trim());
+                if (width > 0 && height > 0) {
+                    return new Dimension(width, height);
+                }
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("expected WIDTHxHEIGHT, e.g. 1920x1080");
+    }
+
+    private static URL url(String value) {
+        try {
+            return URI.create(value).toURL();
+        } catch (MalformedURLException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("expected a URL such as http://localhost:4444");
+        }
+    }
+
+    private static Path toPath(URL resource) {
+        try {
+            return "file".equals(resource.getProtocol()) ? Path.of(resource.toURI()) : null;
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    private static String firstNonBlank(String... values) {
+        for (String value : values) {
+            if (value != null && !value.isBlank()) {
+                return value.trim();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return The base file, or null if the configuration came from a jar or from defaults.
+     */
+    public Path getSource() {
+        return source;
+    }
+
+    /**
+     * @return The active profile, or null.
+     */
+    public String getProfile() {
+        return profile;
+    }
+
+    /**
+     * @return The merged configuration as plain maps, lists and scalars.
+     */
+    public Map<String, Object> getTree() {
+        return tree;
+    }
+
+    /**
+     * @param path A top-level key or a {@code section.key} path.
+     * @return The value as a string, or null if it is not set.
+     */
+    public String getString(String path) {
+        return values.get(path);
+    }
+
+    /**
+     * @param section A top-level key such as {@code locatorDir}.
+     * @return Child key to value as string, in file order; empty if the section is missing.
+     */
+    public Map<String, String> getSection(String section) {
+        return sections.getOrDefault(section, Map.of());
+    }
+
+    public int getInt(String path) {
+        return (Integer) typed(path);
+    }
+
+    public boolean getBoolean(String path) {
+        return (Boolean) typed(path);
+    }
+
+    public double getDouble(String path) {
+        return (Double) typed(path);
+    }
+
+    public Duration getDuration(String path) {
+        return (Duration) typed(path);
+    }
+
+    public Path getPath(String path) {
+        return (Path) typed(path);
+    }
+
+    public Dimension getDimension(String path) {
+        return (Dimension) typed(path);
+    }
+
+    public URL getUrl(String path) {
+        return (URL) typed(path);
+    }
+
+    /**
+     * @param path A setting declared as a list.
+     * @return The items in order; empty if the setting is not set.
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> getList(String path) {
+        return (List<String>) typed(path);
+    }
+
+    /**
+     * @param path A typed setting.
+     * @return True if the setting has a value, from the configuration or its default.
+     */
+    public boolean isSet(String path) {
+        return typed(path) != null;
+    }
+
+    /**
+     * @param path    A setting declared as an enum.
+     * @param type    The enum class.
+     * @param <E>     The enum type.
+     * @return The value.
+     */
+    public <E extends Enum<E>> E getEnum(String path, Class<E> type) {
+        return type.cast(typed(path));
+    }
+
+    /**
+     * @param section A section whose values are all durations, e.g. {@code waitTimeouts}.
+     * @return Child key to duration, in file order.
+     */
+    public Map<String, Duration> getDurations(String section) {
+        Map<String, Duration> result = new LinkedHashMap<>();
+        getSection(section).keySet().forEach(key -> result.put(key, (Duration) typed.get(section + "." + key)));
+        return result;
+    }
+
+    /**
+     * @param section A section whose values are all paths, e.g. {@code locatorDir}.
+     * @return Child key to path, in file order; blank entries are left out.
+     */
+    public Map<String, Path> getPaths(String section) {
+        Map<String, Path> result = new LinkedHashMap<>();
+        getSection(section).keySet().forEach(key -> {
+            Path path = (Path) typed.get(section + "." + key);
+            if (path != null) {
+                result.put(key, path);
+            }
+        });
+        return result;
+    }
+
+    private Object typed(String path) {
+        if (!SETTINGS.containsKey(path)) {
+            throw new IllegalArgumentException("Not a typed configuration setting: " + path);
+        }
+        return typed.get(path);
+    }
+}
@@ -0,0 +1,177 @@
+package com.fluxion.core;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * HotReloader watches the locator files and config.yml and swaps in the changed file without
+ * restarting the JVM.
+ *
+ * <p>Opt-in with {@code -Dfluxion.hotReload=true} or {@code hotReload: true} in config.yml. Only the file
+ * that changed is re-parsed. A file that fails to parse is reported and the last good state stays active.
+ * Running scenarios are not affected: they keep the locator snapshot pinned when they started.</p>
+ */
+public final class HotReloader {
+    private static final Logger logger = LogManager.getLogger(HotReloader.class);
+    // Editors often write a file in several steps; wait for the burst to settle before re-parsing
+    private static final long SETTLE_MILLIS = 100;
+
+    private static volatile Thread watcherThread;
+
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> watchedDirs = new ConcurrentHashMap<>();
+    private final List<Path> locatorRoots;
+    private final Path configFile;
+
+    private HotReloader(List<Path> locatorRoots, Path configFile) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.locatorRoots = locatorRoots.stream().map(root -> root.toAbsolutePath().normalize()).toList();
+        this.configFile = configFile.toAbsolutePath().normalize();
+    }
+
+    /**
+     * @return True if hot reload was requested by system property or config.yml.
+     */
+    public static boolean isEnabled() {
+        return FluxionConfig.get().getBoolean("hotReload");
+    }
+
+    /**
+     * Starts the watcher thread if hot reload is enabled and it is not already running.
+     */
+    public static void startIfEnabled() {
+        if (!isEnabled() || watcherThread != null) {
+            return;
+        }
+        synchronized (HotReloader.class) {
+            if (watcherThread != null) {
+                return;
+            }
+            try {
+                Path configFile = FluxionConfig.get().getSource();
+                HotReloader reloader = new HotReloader(LocatorManager.getLocatorRoots(),
+                        configFile != null ? configFile : Path.of(ConfigManager.CONFIG_FILE));
+                reloader.registerAll();
+                Thread thread = new Thread(reloader::watch, "fluxion-hot-reload");
+                thread.setDaemon(true);
+                thread.start();
+                watcherThread = thread;
+                logger.info("Hot reload enabled for {} and {}", reloader.locatorRoots, reloader.configFile);
+            } catch (IOException e) {
+                logger.error("Hot reload could not be started: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stops the watcher thread, if running.
+     */
+    public static void stop() {
+        Thread thread = watcherThread;
+        if (thread != null) {
+            thread.interrupt();
+            watcherThread = null;
+        }
+    }
+
+    private void registerAll() throws IOException {
+        register(configFile.getParent());
+        for (Path root : locatorRoots) {
+            if (Files.isDirectory(root)) {
+                try (Stream<Path> dirs = Files.walk(root)) {
+                    for (Path dir : dirs.filter(Files::isDirectory).toList()) {
+                        register(dir);
+                    }
+                }
+            } else if (root.getParent() != null && Files.isDirectory(root.getParent())) {
+                register(root.getParent());
+            }
+        }
+    }
+
+    private void register(Path dir) throws IOException {
+        if (!watchedDirs.containsValue(dir)) {
+            WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            watchedDirs.put(key, dir);
+        }
+    }
+
+    private void watch() {
+        try (watchService) {
+            while (!Thread.currentThread().isInterrupted()) {
+                Set<Path> changed = new LinkedHashSet<>();
+                WatchKey key = watchService.take();
+                long detectedAt = System.nanoTime();
+                do {
+                    collect(key, changed);
+                    key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+                } while (key != null);
+                changed.forEach(file -> apply(file, detectedAt));
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            logger.error("Hot reload watcher stopped: {}", e.getMessage());
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) {
+        Path dir = watchedDirs.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (dir == null || event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                continue;
+            }
+            Path file = dir.resolve((Path) event.context()).normalize();
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(file) && isUnderLocatorRoot(file)) {
+                try {
+                    register(file);
+                } catch (IOException e) {
+                    logger.warn("Cannot watch new locator directory {}: {}", file, e.getMessage());
+                }
+            } else if (file.equals(configFile) || (LocatorRegistry.isYaml(file) && isLocatorFile(file))) {
+                changed.add(file);
+            }
+        }
+        if (!key.reset()) {
+            watchedDirs.remove(key);
+        }
+    }
+
+    private void apply(Path file, long detectedAt) {
+        long parseStart = System.nanoTime();
+        boolean applied = file.equals(configFile) ? ConfigManager.reload() : LocatorRegistry.reload(file);
+        long now = System.nanoTime();
+        if (applied) {
+            logger.info("Reloaded {} (parse {} ms, latency {} ms)", file,
+                    TimeUnit.NANOSECONDS.toMillis(now - parseStart), TimeUnit.NANOSECONDS.toMillis(now - detectedAt));
+        } else {
+            logger.error("Reload of {} failed; last good state kept", file);
+        }
+    }
+
+    private boolean isLocatorFile(Path file) {
+        return locatorRoots.stream().anyMatch(file::startsWith);
+    }
+
+    private boolean isUnderLocatorRoot(Path dir) {
+        return locatorRoots.stream().anyMatch(root -> Files.isDirectory(root) && dir.startsWith(root));
+    }
+}
@@ -0,0 +1,203 @@
+package com.fluxion.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LatencyMetrics records how long framework actions take, per action type and per locator.
+ *
+ * <p>Instrumented code calls {@link #start()} and {@link #record(String, String, long)}. Each action has one
+ * {@link LatencyHistogram} for all its calls and one per locator. At the end of the run {@link #export()}
+ * writes {@code metrics.json} and {@code metrics.prom} (Prometheus text format) into {@code metrics.dir}
+ * (default {@code target/fluxion}); the HTML report summarises the JSON file. Turn recording off with
+ * {@code metrics.enabled: false} or {@code -Dfluxion.metrics=false}.</p>
+ */
+public final class LatencyMetrics {
+    private static final Logger logger = LogManager.getLogger(LatencyMetrics.class);
+    public static final String DEFAULT_DIR = "target/fluxion";
+    public static final String JSON_FILE = "metrics.json";
+    public static final String PROMETHEUS_FILE = "metrics.prom";
+    // Prometheus bucket bounds in seconds
+    private static final double[] PROMETHEUS_BUCKETS = {0.001, 0.005, 0.01, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60};
+
+    private static final boolean enabled = FluxionConfig.get().getBoolean("metrics.enabled");
+    private static final Map<String, Action> actions = new ConcurrentHashMap<>();
+
+    private LatencyMetrics() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    private static final class Action {
+        private final LatencyHistogram all = new LatencyHistogram();
+        private final Map<String, LatencyHistogram> byLocator = new ConcurrentHashMap<>();
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return A start timestamp for {@link #record(String, String, long)}, or 0 if metrics are off.
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time since {@code startNanos}.
+     *
+     * @param action     The action type, e.g. {@code click}.
+     * @param locator    The locator, usually {@code page.field}, or null.
+     * @param startNanos The value returned by {@link #start()}.
+     */
+    public static void record(String action, String locator, long startNanos) {
+        if (enabled) {
+            recordNanos(action, locator, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Records a duration measured elsewhere.
+     *
+     * @param action  The action type.
+     * @param locator The locator, or null.
+     * @param nanos   The duration in nanoseconds.
+     */
+    public static void recordNanos(String action, String locator, long nanos) {
+        if (!enabled) {
+            return;
+        }
+        Action metrics = actions.get(action);
+        if (metrics == null) {
+            metrics = actions.computeIfAbsent(action, key -> new Action());
+        }
+        metrics.all.record(nanos);
+        if (locator != null) {
+            LatencyHistogram histogram = metrics.byLocator.get(locator);
+            if (histogram == null) {
+                histogram = metrics.byLocator.computeIfAbsent(locator, key -> new LatencyHistogram());
+            }
+            histogram.record(nanos);
+        }
+    }
+
+    /**
+     * @return Action type to its histogram over all locators.
+     */
+    public static Map<String, LatencyHistogram> getActions() {
+        Map<String, LatencyHistogram> result = new TreeMap<>();
+        actions.forEach((name, metrics) -> result.put(name, metrics.all));
+        return result;
+    }
+
+    /**
+     * Forgets everything recorded so far.
+     */
+    public static void reset() {
+        actions.clear();
+    }
+
+    /**
+     * Writes the metrics to {@code metrics.dir}. Nothing is written if nothing was recorded.
+     */
+    public static void export() {
+        export(FluxionConfig.get().getPath("metrics.dir"));
+    }
+
+    /**
+     * Writes {@code metrics.json} and {@code metrics.prom} into a directory.
+     *
+     * @param dir The output directory.
+     */
+    public static void export(Path dir) {
+        if (actions.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(dir);
+            writeJson(dir.resolve(JSON_FILE));
+            writePrometheus(dir.resolve(PROMETHEUS_FILE));
+            logger.info("Latency metrics for {} action type(s) written to {}", actions.size(), dir);
+        } catch (IOException e) {
+            logger.error("Failed to write latency metrics to {}: {}", dir, e.getMessage());
+        }
+    }
+
+    private static void writeJson(Path file) throws IOException {
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        ObjectNode root = mapper.createObjectNode();
+        ArrayNode actionNodes = root.putArray("actions");
+        ArrayNode locatorNodes = root.putArray("locators");
+        new TreeMap<>(actions).forEach((name, metrics) -> {
+            summarise(actionNodes.addObject(), name, null, metrics.all);
+            new TreeMap<>(metrics.byLocator).forEach((locator, histogram) ->
+                    summarise(locatorNodes.addObject(), name, locator, histogram));
+        });
+        mapper.writeValue(file.toFile(), root);
+    }
+
+    private static void summarise(ObjectNode node, String action, String locator, LatencyHistogram histogram) {
+        node.put("action", action);
+        if (locator != null) {
+            node.put("locator", locator);
+        }
+        node.put("count", histogram.getCount());
+        node.put("totalMillis", millis(histogram.getSumNanos()));
+        node.put("meanMillis", millis(histogram.getCount() == 0 ? 0 : histogram.getSumNanos() / histogram.getCount()));
+        node.put("p50Millis", millis(histogram.quantileNanos(0.50)));
+        node.put("p90Millis", millis(histogram.quantileNanos(0.90)));
+        node.put("p99Millis", millis(histogram.quantileNanos(0.99)));
+        node.put("maxMillis", millis(histogram.getMaxNanos()));
+    }
+
+    private static void writePrometheus(Path file) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("# HELP fluxion_action_duration_seconds Duration of framework actions.\n");
+            out.write("# TYPE fluxion_action_duration_seconds histogram\n");
+            for (Map.Entry<String, Action> entry : new TreeMap<>(actions).entrySet()) {
+                writeSeries(out, "fluxion_action_duration_seconds", "action=\"" + escape(entry.getKey()) + "\"",
+                        entry.getValue().all);
+            }
+            out.write("# HELP fluxion_locator_duration_seconds Duration of framework actions per locator.\n");
+            out.write("# TYPE fluxion_locator_duration_seconds histogram\n");
+            for (Map.Entry<String, Action> entry : new TreeMap<>(actions).entrySet()) {
+                for (Map.Entry<String, LatencyHistogram> locator : new TreeMap<>(entry.getValue().byLocator).entrySet()) {
+                    writeSeries(out, "fluxion_locator_duration_seconds", "action=\"" + escape(entry.getKey())
+                            + "\",locator=\"" + escape(locator.getKey()) + "\"", locator.getValue());
+                }
+            }
+        }
+    }
+
+    private static void writeSeries(Writer out, String name, String labels, LatencyHistogram histogram) throws IOException {
+        for (double bound : PROMETHEUS_BUCKETS) {
+            out.write(String.format(Locale.ROOT, "%s_bucket{%s,le=\"%s\"} %d\n", name, labels,
+                    bound, histogram.countAtOrBelow((long) (bound * 1_000_000_000L))));
+        }
+        out.write(String.format(Locale.ROOT, "%s_bucket{%s,le=\"+Inf\"} %d\n", name, labels, histogram.getCount()));
+        out.write(String.format(Locale.ROOT, "%s_sum{%s} %.6f\n", name, labels, histogram.getSumNanos() / 1e9));
+        out.write(String.format(Locale.ROOT, "%s_count{%s} %d\n", name, labels, histogram.getCount()));
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    private static String escape(String label) {
+        return label.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
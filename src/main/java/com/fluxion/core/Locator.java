@@ -0,0 +1,75 @@
+package com.fluxion.core;
+
+import org.openqa.selenium.By;
+
+import java.util.Locale;
+
+/**
+ * Locator is one compiled {@code type__value} entry from a locator YAML file.
+ * The {@link By} is built once at load time and shared by every lookup.
+ */
+public final class Locator {
+    private final String type;
+    private final String value;
+    private final By by;
+    private final String source;
+
+    private Locator(String type, String value, By by, String source) {
+        this.type = type;
+        this.value = value;
+        this.by = by;
+        this.source = source;
+    }
+
+    /**
+     * Compiles a raw {@code type__value} locator.
+     *
+     * @param raw    The locator as written in YAML, e.g. {@code css__#username}.
+     * @param source File and line the entry came from, used in error messages.
+     * @return The compiled locator.
+     * @throws IllegalArgumentException if the entry is not a supported {@code type__value} pair.
+     */
+    public static Locator parse(String raw, String source) {
+        int separator = raw == null ? -1 : raw.indexOf("__");
+        if (separator <= 0 || separator + 2 >= raw.length()) {
+            throw new IllegalArgumentException(source + ": expected 'type__value' but found '" + raw + "'");
+        }
+        String type = raw.substring(0, separator).trim().toLowerCase(Locale.ROOT);
+        String value = raw.substring(separator + 2);
+        By by = switch (type) {
+            case "id" -> By.id(value);
+            case "xpath" -> By.xpath(value);
+            case "css" -> By.cssSelector(value);
+            case "name" -> By.name(value);
+            case "linktext" -> By.linkText(value);
+            case "partiallinktext" -> By.partialLinkText(value);
+            case "tagname" -> By.tagName(value);
+            default -> throw new IllegalArgumentException(source + ": unsupported locator type '" + type + "'");
+        };
+        return new Locator(type, value, by, source);
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public By getBy() {
+        return by;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * @return The locator in its YAML form, {@code type__value}.
+     */
+    @Override
+    public String toString() {
+        return type + "__" + value;
+    }
+}
@@ -0,0 +1,230 @@
+package com.fluxion.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * LocatorCache keeps compiled locator files on disk so an unchanged file is not parsed again on the next run.
+ *
+ * <p>An entry is keyed by the file's absolute path and is valid while the file's modification time and size
+ * are unchanged. If those differ but the SHA-256 of the content does not (a checkout that only touched the
+ * file), the entry is reused and its timestamp refreshed. Files that fail to parse are never cached, so their
+ * errors are reported on every run. Turn the cache off with {@code locatorCache.enabled: false} or
+ * {@code -Dfluxion.locatorCache=false}; its location is {@code locatorCache.file}.</p>
+ */
+public final class LocatorCache {
+    private static final Logger logger = LogManager.getLogger(LocatorCache.class);
+    public static final String DEFAULT_FILE = LatencyMetrics.DEFAULT_DIR + "/locator-cache.json";
+    // Bumped whenever the entry layout changes; older caches are ignored
+    private static final int VERSION = 1;
+
+    private final Path file;
+    private final boolean enabled;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<Path, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder parsed = new LongAdder();
+    private final ReentrantLock saveLock = new ReentrantLock();
+    private volatile boolean dirty;
+
+    private record Entry(long modified, long size, String sha256, LocatorFile compiled) {
+    }
+
+    private LocatorCache(Path file, boolean enabled) {
+        this.file = file;
+        this.enabled = enabled;
+        if (enabled) {
+            read();
+        }
+    }
+
+    private static final class Holder {
+        private static final LocatorCache SHARED = fromConfig();
+    }
+
+    /**
+     * @return The cache configured in config.yml, read from disk on first use.
+     */
+    public static LocatorCache shared() {
+        return Holder.SHARED;
+    }
+
+    /**
+     * @param file    The cache file.
+     * @param enabled False to always parse.
+     * @return A cache backed by the given file.
+     */
+    public static LocatorCache open(Path file, boolean enabled) {
+        return new LocatorCache(file, enabled);
+    }
+
+    private static LocatorCache fromConfig() {
+        FluxionConfig config = FluxionConfig.get();
+        return new LocatorCache(config.getPath("locatorCache.file"), config.getBoolean("locatorCache.enabled"));
+    }
+
+    /**
+     * Returns the compiled locator file, from the cache if the file is unchanged, otherwise by parsing it.
+     *
+     * @param path Absolute path of the locator file.
+     * @return The compiled file, without an app.
+     * @throws IllegalArgumentException if the file is malformed.
+     */
+    public LocatorFile load(Path path) {
+        if (!enabled) {
+            parsed.increment();
+            return LocatorFile.parse(path);
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            long modified = attributes.lastModifiedTime().toMillis();
+            Entry entry = entries.get(path);
+            if (entry != null && entry.modified() == modified && entry.size() == attributes.size()) {
+                hits.increment();
+                return entry.compiled();
+            }
+            String sha256 = sha256(Files.readAllBytes(path));
+            if (entry != null && entry.sha256().equals(sha256)) {
+                entries.put(path, new Entry(modified, attributes.size(), sha256, entry.compiled()));
+                dirty = true;
+                hits.increment();
+                return entry.compiled();
+            }
+            LocatorFile compiled = LocatorFile.parse(path);
+            entries.put(path, new Entry(modified, attributes.size(), sha256, compiled));
+            dirty = true;
+            parsed.increment();
+            return compiled;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read locator file: " + path, e);
+        }
+    }
+
+    /**
+     * Writes the cache back to disk if anything changed, dropping entries whose file no longer exists.
+     */
+    public void save() {
+        if (!enabled || !dirty) {
+            return;
+        }
+        saveLock.lock();
+        try {
+            dirty = false;
+            entries.keySet().removeIf(path -> !Files.exists(path));
+            ObjectNode root = mapper.createObjectNode();
+            root.put("version", VERSION);
+            ObjectNode files = root.putObject("files");
+            new TreeMap<>(entries).forEach((path, entry) -> write(files.putObject(path.toString()), entry));
+
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            mapper.writeValue(temp.toFile(), root);
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to write locator cache {}: {}", file, e.getMessage());
+        } finally {
+            saveLock.unlock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return How many files were served from the cache.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return How many files had to be parsed.
+     */
+    public long getParsed() {
+        return parsed.sum();
+    }
+
+    private void read() {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try {
+            JsonNode root = mapper.readTree(file.toFile());
+            if (root == null || root.path("version").asInt() != VERSION) {
+                logger.debug("Ignoring locator cache {} written by another version", file);
+                return;
+            }
+            for (Iterator<Map.Entry<String, JsonNode>> it = root.path("files").fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> node = it.next();
+                Path path = Path.of(node.getKey());
+                entries.put(path, read(path, node.getValue()));
+            }
+            logger.debug("Read {} cached locator file(s) from {}", entries.size(), file);
+        } catch (IOException | RuntimeException e) {
+            // A damaged cache only costs a full parse
+            entries.clear();
+            logger.warn("Ignoring unreadable locator cache {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static Entry read(Path path, JsonNode node) {
+        Map<String, Map<String, Locator>> pages = new LinkedHashMap<>();
+        node.path("pages").fields().forEachRemaining(page -> {
+            Map<String, Locator> fields = new LinkedHashMap<>();
+            page.getValue().fields().forEachRemaining(field -> fields.put(field.getKey(),
+                    Locator.parse(field.getValue().path("locator").asText(), field.getValue().path("source").asText())));
+            pages.put(page.getKey(), fields);
+        });
+        LocatorFile compiled = LocatorFile.of(path, node.path("namespace").asText(), pages);
+        return new Entry(node.path("modified").asLong(), node.path("size").asLong(), node.path("sha256").asText(), compiled);
+    }
+
+    private static void write(ObjectNode node, Entry entry) {
+        node.put("modified", entry.modified());
+        node.put("size", entry.size());
+        node.put("sha256", entry.sha256());
+        node.put("namespace", entry.compiled().getNamespace());
+        ObjectNode pages = node.putObject("pages");
+        entry.compiled().getPages().forEach((page, fields) -> {
+            ObjectNode fieldNodes = pages.putObject(page);
+            fields.forEach((field, locator) -> {
+                ObjectNode locatorNode = fieldNodes.putObject(field);
+                locatorNode.put("locator", locator.toString());
+                locatorNode.put("source", locator.getSource());
+            });
+        });
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.fluxion.core;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LocatorDiff finds the pages and fields whose locators changed since a git revision.
+ *
+ * <p>Changes are reported as {@link #reference} strings: {@code page.field} for a field that was added,
+ * removed or given a different locator, and {@code page} for a page that was added or removed as a whole.
+ * Page names drop any namespace or app prefix, so a step that says {@code appName1.LoginPage} and one that says
+ * {@code Login Page} both refer to {@code loginpage}.</p>
+ */
+public final class LocatorDiff {
+    private static final Logger logger = LogManager.getLogger(LocatorDiff.class);
+    private static final long GIT_TIMEOUT_SECONDS = 60;
+
+    private LocatorDiff() {
+    }
+
+    /**
+     * The working tree compared with a revision.
+     *
+     * @param revision   The git revision compared against.
+     * @param files      Changed, added, removed and untracked files, as absolute normalised paths.
+     * @param references The locator changes, as {@link #reference} strings.
+     */
+    public record Changes(String revision, Set<Path> files, Set<String> references) {
+    }
+
+    /**
+     * @param page  A page name as written in YAML or in a step, optionally with a namespace or app prefix.
+     * @param field A field name, or null for the page itself.
+     * @return The normalised reference, {@code page} or {@code page.field}.
+     */
+    public static String reference(String page, String field) {
+        String normalized = LocatorIndex.normalize(page);
+        normalized = normalized.substring(normalized.lastIndexOf('.') + 1);
+        return field == null ? normalized : normalized + "." + LocatorIndex.normalize(field);
+    }
+
+    /**
+     * Compares two versions of a locator file.
+     *
+     * @param before The file at the older revision, or null if it did not exist.
+     * @param after  The file now, or null if it was removed.
+     * @return The changed pages and fields, as {@link #reference} strings.
+     */
+    public static Set<String> changed(LocatorFile before, LocatorFile after) {
+        Set<String> changes = new TreeSet<>();
+        Set<String> pages = new LinkedHashSet<>();
+        if (before != null) {
+            pages.addAll(before.getPageNames());
+        }
+        if (after != null) {
+            pages.addAll(after.getPageNames());
+        }
+        for (String page : pages) {
+            Map<String, Locator> old = before != null ? before.getPage(page) : null;
+            Map<String, Locator> now = after != null ? after.getPage(page) : null;
+            if (old == null || now == null) {
+                changes.add(reference(page, null));
+                continue;
+            }
+            Set<String> fields = new LinkedHashSet<>(old.keySet());
+            fields.addAll(now.keySet());
+            for (String field : fields) {
+                // Compared in their YAML form; the source line may move without the locator changing
+                if (!Objects.equals(Objects.toString(old.get(field), null), Objects.toString(now.get(field), null))) {
+                    changes.add(reference(page, field));
+                }
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Lists the files changed since a revision, including uncommitted and untracked ones, and diffs the given
+     * locator files against their content at that revision.
+     *
+     * @param revision     A git revision, e.g. {@code origin/main} or {@code HEAD~1}.
+     * @param locatorFiles The locator files in use.
+     * @return The changes.
+     * @throws IllegalStateException if git fails, e.g. outside a repository or for an unknown revision.
+     */
+    public static Changes since(String revision, Collection<Path> locatorFiles) {
+        Path top = Path.of(git("rev-parse", "--show-toplevel").trim());
+        Set<Path> files = new LinkedHashSet<>();
+        String tracked = git("diff", "--name-only", "--no-renames", revision, "--");
+        String untracked = git("ls-files", "--others", "--exclude-standard");
+        (tracked + "\n" + untracked).lines().filter(line -> !line.isBlank())
+                .forEach(line -> files.add(top.resolve(line).toAbsolutePath().normalize()));
+
+        Set<String> references = new TreeSet<>();
+        for (Path locatorFile : locatorFiles) {
+            Path absolute = locatorFile.toAbsolutePath().normalize();
+            if (!files.contains(absolute)) {
+                continue;
+            }
+            LocatorFile before = atRevision(revision, top, absolute);
+            LocatorFile after = Files.isRegularFile(absolute) ? LocatorFile.parse(absolute) : null;
+            Set<String> changes = changed(before, after);
+            logger.debug("{} changed since {}: {}", locatorFile, revision, changes);
+            references.addAll(changes);
+        }
+        return new Changes(revision, Set.copyOf(files), Set.copyOf(references));
+    }
+
+    // Parsed from a copy with the same file name, so that the namespace is the same
+    private static LocatorFile atRevision(String revision, Path top, Path file) {
+        String relative = top.relativize(file).toString().replace('\\', '/');
+        String content;
+        try {
+            content = git("show", revision + ":" + relative);
+        } catch (IllegalStateException e) {
+            // Added after the revision
+            return null;
+        }
+        try {
+            Path directory = Files.createTempDirectory("fluxion-locators");
+            Path copy = directory.resolve(file.getFileName());
+            Files.writeString(copy, content, StandardCharsets.UTF_8);
+            try {
+                return LocatorFile.parse(copy);
+            } finally {
+                Files.deleteIfExists(copy);
+                Files.deleteIfExists(directory);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read " + relative + " at " + revision, e);
+        } catch (IllegalArgumentException e) {
+            // Malformed at that revision: every page counts as changed
+            logger.warn("{} at {} is not a valid locator file: {}", relative, revision, e.getMessage());
+            return null;
+        }
+    }
+
+    private static String git(String... args) {
+        String[] command = new String[args.length + 1];
+        command[0] = "git";
+        System.arraycopy(args, 0, command, 1, args.length);
+        try {
+            Process process = new ProcessBuilder(command).start();
+            process.getOutputStream().close();
+            // stderr is small; read it after stdout so a large diff cannot block the process
+            String output;
+            try (InputStream in = process.getInputStream()) {
+                output = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            String errors;
+            try (InputStream err = process.getErrorStream()) {
+                errors = new String(err.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            if (!process.waitFor(GIT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                throw new IllegalStateException("git " + String.join(" ", args) + " timed out");
+            }
+            if (process.exitValue() != 0) {
+                throw new IllegalStateException("git " + String.join(" ", args) + " failed: " + errors.trim());
+            }
+            return output;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to run git " + String.join(" ", args), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running git " + String.join(" ", args), e);
+        }
+    }
+}
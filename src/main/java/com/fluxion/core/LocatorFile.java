@@ -0,0 +1,420 @@
+package com.fluxion.core;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * LocatorFile is the compiled content of one locator YAML file.
+ *
+ * <p>Top-level mappings are pages ({@code LoginPage: {UserName: "css__#username"}}); top-level scalars
+ * belong to a page named after the file. Page and field keys are normalised with
+ * {@link LocatorIndex#normalize(String)} and every entry is compiled to a {@link Locator}. A file loaded
+ * from a {@code locatorDir} entry of config.yml also carries that entry's name as its app.</p>
+ *
+ * <p>A file can also be {@linkplain #scan(Path) scanned} instead of parsed: only the top-level keys and their
+ * byte ranges are read, and a page is parsed the first time it is asked for. Malformed entries of a scanned
+ * file are reported when their page is first used.</p>
+ */
+public final class LocatorFile {
+    private static final Logger logger = LogManager.getLogger(LocatorFile.class);
+    // Anchors, aliases and merge keys can tie pages together, so such files are always parsed whole
+    private static final Pattern CROSS_REFERENCE = Pattern.compile("(^|[\\s:\\-\\[{,])[&*][^\\s]|<<\\s*:");
+
+    private final Path path;
+    private final String namespace;
+    private final String app;
+    private final Map<String, Map<String, Locator>> pages;
+    // Scanned files only: byte ranges per page and the pages parsed so far
+    private final Map<String, List<Segment>> segments;
+    private final Map<String, Map<String, Locator>> resolved;
+    private final long scannedSize;
+    private final long scannedModified;
+
+    private record Segment(long offset, int length, int line) {
+    }
+
+    private LocatorFile(Path path, String namespace, String app, Map<String, Map<String, Locator>> pages) {
+        this(path, namespace, app, pages, null, null, 0, 0);
+    }
+
+    private LocatorFile(Path path, String namespace, String app, Map<String, Map<String, Locator>> pages,
+                        Map<String, List<Segment>> segments, Map<String, Map<String, Locator>> resolved,
+                        long scannedSize, long scannedModified) {
+        this.path = path;
+        this.namespace = namespace;
+        this.app = app;
+        this.pages = pages;
+        this.segments = segments;
+        this.resolved = resolved;
+        this.scannedSize = scannedSize;
+        this.scannedModified = scannedModified;
+    }
+
+    /**
+     * Creates a file from locators that were already compiled, e.g. read back from the {@link LocatorCache}.
+     *
+     * @param path      Path to the YAML file.
+     * @param namespace The normalised file name without extension.
+     * @param pages     Normalised page name to normalised field name to locator.
+     * @return The file, without an app.
+     */
+    static LocatorFile of(Path path, String namespace, Map<String, Map<String, Locator>> pages) {
+        Map<String, Map<String, Locator>> copy = new LinkedHashMap<>();
+        pages.forEach((page, fields) -> copy.put(page, Collections.unmodifiableMap(new LinkedHashMap<>(fields))));
+        return new LocatorFile(path, namespace, null, Collections.unmodifiableMap(copy));
+    }
+
+    /**
+     * Parses and compiles a locator file.
+     *
+     * @param file Path to the YAML file.
+     * @return The compiled file.
+     * @throws IllegalArgumentException listing every malformed entry with its line number.
+     * @throws RuntimeException if the file cannot be read.
+     */
+    public static LocatorFile parse(Path file) {
+        Node root;
+        try (Reader reader = Files.newBufferedReader(file)) {
+            root = new Yaml().compose(reader);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read locator file: " + file, e);
+        }
+        String namespace = LocatorIndex.normalize(baseName(file));
+        Map<String, Map<String, Locator>> pages = compile(file, namespace, root, 0);
+        return new LocatorFile(file, namespace, null, Collections.unmodifiableMap(pages));
+    }
+
+    /**
+     * Indexes the top-level keys of a locator file without parsing the locators. Each page is parsed from its
+     * own byte range the first time {@link #getPage(String)} asks for it. Files whose layout cannot be split
+     * safely (flow style at the top level, document markers, anchors or aliases) are parsed whole instead.
+     *
+     * @param file Path to the YAML file.
+     * @return The scanned file.
+     * @throws RuntimeException if the file cannot be read.
+     */
+    public static LocatorFile scan(Path file) {
+        byte[] content;
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            content = Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read locator file: " + file, e);
+        }
+        String namespace = LocatorIndex.normalize(baseName(file));
+        Map<String, List<Segment>> segments = split(content, namespace);
+        if (segments == null) {
+            logger.debug("Locator file {} cannot be split by page, parsing it whole", file);
+            return parse(file);
+        }
+        segments.replaceAll((page, ranges) -> List.copyOf(ranges));
+        return new LocatorFile(file, namespace, null, null, Collections.unmodifiableMap(segments),
+                new ConcurrentHashMap<>(), content.length, attributes.lastModifiedTime().toMillis());
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return The normalised file name without extension.
+     */
+    public String getNamespace() {
+        return namespace;
+    }
+
+    /**
+     * @return The normalised name of the {@code locatorDir} entry this file was loaded for, or null.
+     */
+    public String getApp() {
+        return app;
+    }
+
+    /**
+     * @param appName The {@code locatorDir} entry name, in any spacing or case, or null.
+     * @return This file's locators under the given app.
+     */
+    public LocatorFile withApp(String appName) {
+        String normalized = appName == null || appName.isBlank() ? null : LocatorIndex.normalize(appName);
+        return Objects.equals(normalized, app) ? this
+                : new LocatorFile(path, namespace, normalized, pages, segments, resolved, scannedSize, scannedModified);
+    }
+
+    /**
+     * @return True if pages are parsed on first use.
+     */
+    public boolean isScanned() {
+        return segments != null;
+    }
+
+    /**
+     * @return The normalised names of the pages in this file, without parsing them.
+     */
+    public Set<String> getPageNames() {
+        return segments != null ? segments.keySet() : pages.keySet();
+    }
+
+    /**
+     * Retrieves the locators of one page, parsing it first if the file was scanned.
+     *
+     * @param page The normalised page name.
+     * @return Normalised field name to locator, or null if the file has no such page.
+     * @throws IllegalArgumentException if the page has malformed entries.
+     */
+    public Map<String, Locator> getPage(String page) {
+        if (segments == null) {
+            return pages.get(page);
+        }
+        Map<String, Locator> fields = resolved.get(page);
+        if (fields == null && segments.containsKey(page)) {
+            // Parsed outside any lock; two threads asking at once both parse and the first result is kept
+            fields = resolved.putIfAbsent(page, resolve(page));
+            if (fields == null) {
+                fields = resolved.get(page);
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * @return Normalised page name to normalised field name to locator; parses every page of a scanned file.
+     */
+    public Map<String, Map<String, Locator>> getPages() {
+        if (segments == null) {
+            return pages;
+        }
+        Map<String, Map<String, Locator>> all = new LinkedHashMap<>();
+        segments.keySet().forEach(page -> all.put(page, getPage(page)));
+        return Collections.unmodifiableMap(all);
+    }
+
+    private Map<String, Locator> resolve(String page) {
+        long start = LatencyMetrics.start();
+        try (FileChannel channel = FileChannel.open(path)) {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (attributes.size() != scannedSize || attributes.lastModifiedTime().toMillis() != scannedModified) {
+                logger.warn("Locator file {} changed since it was scanned, parsing it again", path);
+                Map<String, Locator> fields = parse(path).getPages().get(page);
+                return fields != null ? fields : Map.of();
+            }
+            Map<String, Locator> fields = new LinkedHashMap<>();
+            List<String> errors = new ArrayList<>();
+            for (Segment segment : segments.get(page)) {
+                ByteBuffer buffer = ByteBuffer.allocate(segment.length());
+                int read = 0;
+                while (buffer.hasRemaining()) {
+                    int n = channel.read(buffer, segment.offset() + read);
+                    if (n < 0) {
+                        break;
+                    }
+                    read += n;
+                }
+                Node root = new Yaml().compose(new StringReader(
+                        new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8)));
+                try {
+                    Map<String, Locator> parsed = compile(path, namespace, root, segment.line()).get(page);
+                    if (parsed != null) {
+                        parsed.forEach((field, locator) -> {
+                            if (fields.putIfAbsent(field, locator) != null) {
+                                errors.add(locator.getSource() + ": duplicate locator '" + field + "'");
+                            }
+                        });
+                    }
+                } catch (IllegalArgumentException e) {
+                    errors.add(e.getMessage());
+                }
+            }
+            if (!errors.isEmpty()) {
+                throw new IllegalArgumentException(String.join("\n", errors));
+            }
+            return Collections.unmodifiableMap(fields);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read locator file: " + path, e);
+        } finally {
+            LatencyMetrics.record("locators.page", null, start);
+        }
+    }
+
+    // Splits the content at top-level keys; returns null if the layout is not one the line scanner understands
+    private static Map<String, List<Segment>> split(byte[] content, String namespace) {
+        Map<String, List<Segment>> segments = new LinkedHashMap<>();
+        List<Segment> current = null;
+        String currentPage = null;
+        int segmentStart = 0;
+        int segmentLine = 0;
+        int line = 0;
+        int pos = 0;
+        while (pos < content.length) {
+            int end = pos;
+            while (end < content.length && content[end] != '\n') {
+                end++;
+            }
+            byte first = content[pos];
+            if (first != ' ' && first != '\t' && first != '\r' && first != '\n' && first != '#') {
+                String text = new String(content, pos, end - pos, StandardCharsets.UTF_8).stripTrailing();
+                if (CROSS_REFERENCE.matcher(text).find()) {
+                    return null;
+                }
+                String[] entry = topLevelEntry(text);
+                if (entry == null) {
+                    return null;
+                }
+                if (currentPage != null) {
+                    current.add(new Segment(segmentStart, pos - segmentStart, segmentLine));
+                }
+                currentPage = entry[1] == null ? LocatorIndex.normalize(entry[0]) : namespace;
+                current = segments.computeIfAbsent(currentPage, k -> new ArrayList<>());
+                segmentStart = pos;
+                segmentLine = line;
+            } else if (first == ' ' && mayReference(content, pos, end) && CROSS_REFERENCE.matcher(
+                    new String(content, pos, end - pos, StandardCharsets.UTF_8)).find()) {
+                return null;
+            }
+            pos = end + 1;
+            line++;
+        }
+        if (currentPage != null) {
+            current.add(new Segment(segmentStart, content.length - segmentStart, segmentLine));
+        }
+        return segments;
+    }
+
+    // Cheap byte test so only lines that could hold an anchor, alias or merge key are decoded
+    private static boolean mayReference(byte[] content, int from, int to) {
+        for (int i = from; i < to; i++) {
+            byte b = content[i];
+            if (b == '&' || b == '*' || b == '<') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Key and inline value (null if the value is a nested block) of a top-level line, or null if unsupported
+    private static String[] topLevelEntry(String text) {
+        char first = text.charAt(0);
+        if ("{[-?!%|>@`".indexOf(first) >= 0 || text.startsWith("---") || text.startsWith("...")) {
+            return null;
+        }
+        int colon;
+        String key;
+        if (first == '"' || first == '\'') {
+            int close = text.indexOf(first, 1);
+            if (close < 0 || text.indexOf('\\') >= 0) {
+                return null;
+            }
+            key = text.substring(1, close);
+            colon = text.indexOf(':', close);
+        } else {
+            colon = text.indexOf(": ");
+            if (colon < 0 && text.endsWith(":")) {
+                colon = text.length() - 1;
+            }
+            key = colon < 0 ? null : text.substring(0, colon).trim();
+        }
+        if (colon < 0 || key == null || key.isBlank()) {
+            return null;
+        }
+        String value = text.substring(colon + 1).trim();
+        if (value.startsWith("{")) {
+            // An inline page; its fields are parsed with the rest of the page
+            return new String[]{key, null};
+        }
+        return new String[]{key, value.isEmpty() || value.startsWith("#") ? null : value};
+    }
+
+    private static Map<String, Map<String, Locator>> compile(Path file, String namespace, Node root, int lineOffset) {
+        Map<String, Map<String, Locator>> pages = new LinkedHashMap<>();
+        List<String> errors = new ArrayList<>();
+
+        if (root != null && !(root instanceof MappingNode)) {
+            errors.add(location(file, root, lineOffset) + ": expected a mapping of pages to locators");
+        } else if (root != null) {
+            for (NodeTuple entry : ((MappingNode) root).getValue()) {
+                String key = scalarKey(file, entry, lineOffset, errors);
+                if (key == null) {
+                    continue;
+                }
+                Node value = entry.getValueNode();
+                if (value instanceof MappingNode pageNode) {
+                    Map<String, Locator> fields = pages.computeIfAbsent(LocatorIndex.normalize(key), k -> new LinkedHashMap<>());
+                    for (NodeTuple field : pageNode.getValue()) {
+                        String fieldName = scalarKey(file, field, lineOffset, errors);
+                        if (fieldName != null) {
+                            addLocator(file, fields, fieldName, field.getValueNode(), lineOffset, errors);
+                        }
+                    }
+                } else {
+                    Map<String, Locator> fields = pages.computeIfAbsent(namespace, k -> new LinkedHashMap<>());
+                    addLocator(file, fields, key, value, lineOffset, errors);
+                }
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException("Invalid locator file " + file + ":\n  " + String.join("\n  ", errors));
+        }
+        pages.replaceAll((page, fields) -> Collections.unmodifiableMap(fields));
+        return pages;
+    }
+
+    private static void addLocator(Path file, Map<String, Locator> fields, String fieldName, Node value, int lineOffset,
+                                   List<String> errors) {
+        String source = location(file, value, lineOffset);
+        if (!(value instanceof ScalarNode scalar)) {
+            errors.add(source + ": locator '" + fieldName + "' must be a 'type__value' string");
+            return;
+        }
+        try {
+            Locator locator = Locator.parse(scalar.getValue(), source);
+            if (fields.putIfAbsent(LocatorIndex.normalize(fieldName), locator) != null) {
+                errors.add(source + ": duplicate locator '" + fieldName + "'");
+            }
+        } catch (IllegalArgumentException e) {
+            errors.add(e.getMessage());
+        }
+    }
+
+    private static String scalarKey(Path file, NodeTuple entry, int lineOffset, List<String> errors) {
+        if (entry.getKeyNode() instanceof ScalarNode key && !key.getValue().isBlank()) {
+            return key.getValue();
+        }
+        errors.add(location(file, entry.getKeyNode(), lineOffset) + ": keys must be non-empty strings");
+        return null;
+    }
+
+    private static String location(Path file, Node node, int lineOffset) {
+        return file + ":" + (node.getStartMark().getLine() + 1 + lineOffset);
+    }
+
+    private static String baseName(Path file) {
+        String fileName = file.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(0, dot) : fileName;
+    }
+}
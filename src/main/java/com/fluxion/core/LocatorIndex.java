@@ -0,0 +1,223 @@
+package com.fluxion.core;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LocatorIndex is an immutable {@code (page, field) -> Locator} index compiled from locator files.
+ *
+ * <p>Keys are normalised once at load time, so a step only needs to resolve its {@link Page} when the
+ * page changes; field lookups on that page are then a single map read. Pages of
+ * {@linkplain LocatorFile#scan(Path) scanned} files are compiled on first use.</p>
+ */
+public final class LocatorIndex {
+    private static final Logger logger = LogManager.getLogger(LocatorIndex.class);
+    private static final LocatorIndex EMPTY = new LocatorIndex(Map.of(), Map.of());
+
+    private final Map<Path, LocatorFile> files;
+    private final Map<String, Page> pages;
+
+    private LocatorIndex(Map<Path, LocatorFile> files, Map<String, Page> pages) {
+        this.files = files;
+        this.pages = pages;
+    }
+
+    public static LocatorIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds an index over already compiled locator files.
+     *
+     * <p>Every page is reachable by its own name, by {@code <file>.<page>}, where {@code <file>} is the
+     * file's namespace, and by {@code <app>.<page>} when the file belongs to a {@code locatorDir} app. When two files define the same page their fields are merged; if they disagree on a
+     * field, the file that sorts first by path wins and a warning is logged.</p>
+     *
+     * @param files The compiled files.
+     * @return The index.
+     */
+    public static LocatorIndex of(Collection<LocatorFile> files) {
+        Map<Path, LocatorFile> byPath = new TreeMap<>();
+        files.forEach(file -> byPath.put(file.getPath(), file));
+
+        Map<String, List<Source>> merged = new LinkedHashMap<>();
+        for (LocatorFile file : byPath.values()) {
+            for (String page : file.getPageNames()) {
+                Source source = new Source(file, page);
+                merged.computeIfAbsent(page, k -> new ArrayList<>()).add(source);
+                if (!page.equals(file.getNamespace())) {
+                    merged.computeIfAbsent(file.getNamespace() + "." + page, k -> new ArrayList<>()).add(source);
+                }
+                if (file.getApp() != null) {
+                    merged.computeIfAbsent(file.getApp() + "." + page, k -> new ArrayList<>()).add(source);
+                }
+            }
+        }
+        Map<String, Page> pages = new LinkedHashMap<>();
+        merged.forEach((name, sources) -> pages.put(name, new Page(name, List.copyOf(sources))));
+        return new LocatorIndex(Collections.unmodifiableMap(byPath), Collections.unmodifiableMap(pages));
+    }
+
+    // One file's contribution to a page
+    private record Source(LocatorFile file, String page) {
+    }
+
+    private static Map<String, Locator> merge(String page, List<Source> sources) {
+        Map<String, Locator> target = new LinkedHashMap<>();
+        for (Source source : sources) {
+            Map<String, Locator> fields = source.file().getPage(source.page());
+            if (fields == null) {
+                continue;
+            }
+            fields.forEach((field, locator) -> {
+                Locator existing = target.putIfAbsent(field, locator);
+                if (existing != null && existing != locator) {
+                    logger.warn("Locator {}.{} at {} is shadowed by {}", page, field, locator.getSource(), existing.getSource());
+                }
+            });
+        }
+        return Collections.unmodifiableMap(target);
+    }
+
+    /**
+     * Normalises a page or field name: whitespace removed, lower case.
+     *
+     * @param key The name as written in YAML or in a step.
+     * @return The normalised key.
+     */
+    public static String normalize(String key) {
+        StringBuilder normalized = new StringBuilder(key.length());
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                normalized.append(c);
+            }
+        }
+        return normalized.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Retrieves a page by name.
+     *
+     * @param pageName The page name, in any spacing or case.
+     * @return The page, or null if no locator file defines it.
+     */
+    public Page getPage(String pageName) {
+        Page page = pages.get(pageName);
+        return page != null ? page : pages.get(normalize(pageName));
+    }
+
+    /**
+     * Retrieves a single locator.
+     *
+     * @param pageName  The page name.
+     * @param fieldName The field name.
+     * @return The locator, or null if the page or field is unknown.
+     */
+    public Locator find(String pageName, String fieldName) {
+        Page page = getPage(pageName);
+        return page != null ? page.get(fieldName) : null;
+    }
+
+    /**
+     * Retrieves every page defined by one locator file.
+     *
+     * @param namespace The file name without extension, in any spacing or case.
+     * @return Page name to page; empty if no file has that namespace.
+     */
+    public Map<String, Page> getNamespace(String namespace) {
+        String normalized = normalize(namespace);
+        Map<String, Page> result = new LinkedHashMap<>();
+        for (LocatorFile file : files.values()) {
+            if (file.getNamespace().equals(normalized)) {
+                file.getPageNames().forEach(page -> result.put(page, page.equals(normalized)
+                        ? pages.get(page) : pages.get(normalized + "." + page)));
+            }
+        }
+        return result;
+    }
+
+    public Map<String, Page> getPages() {
+        return pages;
+    }
+
+    public Map<Path, LocatorFile> getFiles() {
+        return files;
+    }
+
+    /**
+     * Page holds the compiled locators of one page.
+     */
+    public static final class Page {
+        private final String name;
+        private final List<Source> sources;
+        // Set at construction for parsed files, on first use for scanned ones
+        private volatile Map<String, Locator> locators;
+        // Spellings used by steps ("User Name") mapped to their entry, so repeated lookups skip normalisation
+        private final Map<String, Locator> aliases = new ConcurrentHashMap<>();
+
+        private Page(String name, List<Source> sources) {
+            this.name = name;
+            this.sources = sources;
+            if (sources.stream().noneMatch(source -> source.file().isScanned())) {
+                this.locators = merge(name, sources);
+            }
+        }
+
+        /**
+         * Retrieves a locator on this page.
+         *
+         * @param fieldName The field name, in any spacing or case.
+         * @return The locator, or null if the page has no such field.
+         */
+        public Locator get(String fieldName) {
+            Map<String, Locator> fields = getLocators();
+            Locator locator = fields.get(fieldName);
+            if (locator == null) {
+                locator = aliases.get(fieldName);
+            }
+            if (locator == null) {
+                locator = fields.get(normalize(fieldName));
+                if (locator != null) {
+                    aliases.put(fieldName, locator);
+                }
+            }
+            return locator;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return Normalised field name to locator; a page of a scanned file is parsed by the first call.
+         * @throws IllegalArgumentException if the page has malformed entries.
+         */
+        public Map<String, Locator> getLocators() {
+            Map<String, Locator> fields = locators;
+            if (fields == null) {
+                fields = merge(name, sources);
+                locators = fields;
+            }
+            return fields;
+        }
+
+        /**
+         * @return True if the locators have been parsed.
+         */
+        public boolean isResolved() {
+            return locators != null;
+        }
+    }
+}
@@ -1,17 +1,27 @@
 package com.fluxion.core;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * LocatorManager loads the project's locator files into the {@link LocatorRegistry} and offers
+ * lookups against the current registry snapshot.
+ *
+ * <p>Locators are read from {@code src/test/resources/locators} and from every entry of the
+ * {@code locatorDir} section in config.yml (files or directories). Pages from a {@code locatorDir} entry are
+ * also reachable as {@code <entry>.<page>}, e.g. {@code appName1.LoginPage}. All files are loaded in parallel
+ * and unchanged files come from the {@link LocatorCache}, or with {@code lazyLocators: true} only their
+ * page names are indexed and each page is parsed when a step first uses it; the startup time is logged.</p>
+ */
 public class LocatorManager {
     static Logger logger = LogManager.getLogger(LocatorManager.class);
-    private static Map<String, Object> locators;
-    private static boolean locatorsLoaded = false; // Flag to ensure locators are loaded only once
+    private static final String DEFAULT_LOCATOR_DIR = "src/test/resources/locators";
 
     // Static block for loading locators only once
     static {
@@ -19,42 +29,72 @@ public class LocatorManager {
         loadLocators();
     }
 
-    // Load locators from the YAML file only once
+    // Load every configured locator file into the registry; malformed entries are rejected here
     private static void loadLocators() {
-        if (!locatorsLoaded) { // Check if locators are already loaded
-            try {
-                ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
-                File locatorFile = new File("src/test/resources/locators/mylocators.yml"); // Update file path if necessary
-                locators = mapper.readValue(locatorFile, Map.class);
-                locatorsLoaded = true; // Mark locators as loaded
-            } catch (Exception e) {
-                System.err.println("Failed to load locator file: src/test/resources/locators/mylocators.yml");
-                e.printStackTrace();
-                // Fallback to default locators if file loading fails
-                locators = Map.of(
-                        "loginButton", "//button[@id='login']",
-                        "usernameField", "//input[@name='username']",
-                        "passwordField", "//input[@name='password']"
-                );
-            }
+        long start = System.nanoTime();
+        Map<Path, String> roots = getLocatorApps();
+        LocatorIndex index = LocatorRegistry.load(roots);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        if (LocatorRegistry.isLazy()) {
+            logger.info("Indexed {} locator page(s) from {} file(s) in {} ms; pages are parsed on first use",
+                    index.getPages().size(), index.getFiles().size(), millis);
+        } else {
+            LocatorCache cache = LocatorCache.shared();
+            logger.info("Loaded {} locator page(s) from {} file(s) in {} ms ({} cached, {} parsed)",
+                    index.getPages().size(), index.getFiles().size(), millis, cache.getHits(), cache.getParsed());
         }
+        LatencyMetrics.record("locators.load", null, start);
+    }
+
+    /**
+     * @return The default locator directory followed by the {@code locatorDir} entries of config.yml.
+     */
+    public static List<Path> getLocatorRoots() {
+        return new ArrayList<>(getLocatorApps().keySet());
+    }
+
+    /**
+     * @return The default locator directory (no app) followed by each {@code locatorDir} entry of config.yml
+     * mapped to its entry name.
+     */
+    public static Map<Path, String> getLocatorApps() {
+        Map<Path, String> roots = new LinkedHashMap<>();
+        roots.put(Path.of(DEFAULT_LOCATOR_DIR), null);
+        FluxionConfig.get().getPaths("locatorDir").forEach((app, path) -> roots.put(path, app));
+        return roots;
+    }
+
+    /**
+     * Retrieves the compiled locators of a page.
+     *
+     * @param pageName The page name, in any spacing or case, optionally prefixed with its file namespace
+     *                 ({@code mylocators.LoginPage}).
+     * @return The page, or null if no locators are defined for it.
+     */
+    public static LocatorIndex.Page getPage(String pageName) {
+        return LocatorRegistry.snapshot().getPage(pageName);
     }
 
-    // Retrieve locator by key
+    public static LocatorIndex getIndex() {
+        return LocatorRegistry.snapshot();
+    }
+
+    // Retrieve a top-level locator, i.e. one that is not nested under a page
     public static String getLocator(String key) {
-        key = key.toLowerCase().replace(" ", "");
-        Object value = locators.get(key);
-        return value != null ? value.toString() : null;
+        LocatorIndex index = LocatorRegistry.snapshot();
+        for (LocatorFile file : index.getFiles().values()) {
+            Locator locator = index.find(file.getNamespace(), key);
+            if (locator != null) {
+                return locator.toString();
+            }
+        }
+        return null;
     }
 
     // Retrieve a nested locator if the locators file has a nested structure
     public static String getNestedLocator(String parentKey, String childKey) {
         logger.debug("Locator to find from YML file for Page: {} and Object: {}", parentKey, childKey);
-        Object parent = locators.get(parentKey);
-        if (parent instanceof Map) {
-            Object childValue = ((Map<?, ?>) parent).get(childKey.replace(" ", ""));
-            return childValue != null ? childValue.toString() : null;
-        }
-        return null;
+        Locator locator = LocatorRegistry.snapshot().find(parentKey, childKey);
+        return locator != null ? locator.toString() : null;
     }
 }
@@ -0,0 +1,240 @@
+package com.fluxion.core;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * LocatorRegistry is the single store for locators across all locator files.
+ *
+ * <p>Files are parsed in parallel, unchanged ones are taken from the {@link LocatorCache}, and the result is
+ * published as one immutable {@link LocatorIndex} through a volatile reference. With {@code lazyLocators: true}
+ * (or {@code -Dfluxion.lazyLocators=true}) files are only {@linkplain LocatorFile#scan(Path) scanned} and each
+ * page is parsed the first time a step uses it. Readers call {@link #snapshot()} and never lock; writers build a complete new index and swap
+ * it in, so a reader always sees either the old or the new set of files, never a mix.</p>
+ */
+public final class LocatorRegistry {
+    private static final Logger logger = LogManager.getLogger(LocatorRegistry.class);
+
+    private static volatile LocatorIndex snapshot = LocatorIndex.empty();
+    // Serialises writers only; readers go straight to the volatile snapshot
+    private static final ReentrantLock writeLock = new ReentrantLock();
+    // Locator root to the locatorDir app it was loaded for, so a reloaded file keeps its app
+    private static final Map<Path, String> appRoots = new ConcurrentHashMap<>();
+
+    private LocatorRegistry() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @return True if locator pages are parsed on first use instead of at load time.
+     */
+    public static boolean isLazy() {
+        return FluxionConfig.get().getBoolean("lazyLocators");
+    }
+
+    /**
+     * @return The current immutable locator index.
+     */
+    public static LocatorIndex snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Replaces the registry with every locator file found under the given roots.
+     *
+     * @param roots Locator files or directories searched recursively for {@code .yml}/{@code .yaml} files.
+     * @return The published index.
+     * @throws IllegalArgumentException if any file is malformed; the previous index stays published.
+     */
+    public static LocatorIndex load(Collection<Path> roots) {
+        return load(withoutApp(roots));
+    }
+
+    /**
+     * Replaces the registry with every locator file found under the given roots, each tagged with its app so
+     * its pages are also reachable as {@code <app>.<page>}.
+     *
+     * @param roots Locator file or directory to its {@code locatorDir} app name, or null for none.
+     * @return The published index.
+     * @throws IllegalArgumentException if any file is malformed; the previous index stays published.
+     */
+    public static LocatorIndex load(Map<Path, String> roots) {
+        List<LocatorFile> files = parseAll(discover(roots));
+        return publish(current -> files);
+    }
+
+    /**
+     * Adds the locator files found under the given roots to the current registry.
+     * A file that is already registered is replaced by its new content.
+     *
+     * @param roots Locator files or directories.
+     * @return The published index.
+     */
+    public static LocatorIndex add(Collection<Path> roots) {
+        return add(withoutApp(roots));
+    }
+
+    /**
+     * Adds the locator files found under the given roots to the current registry, each tagged with its app.
+     * A file that is already registered is replaced by its new content.
+     *
+     * @param roots Locator file or directory to its {@code locatorDir} app name, or null for none.
+     * @return The published index.
+     */
+    public static LocatorIndex add(Map<Path, String> roots) {
+        List<LocatorFile> files = parseAll(discover(roots));
+        return publish(current -> {
+            Map<Path, LocatorFile> merged = new TreeMap<>(current.getFiles());
+            files.forEach(file -> merged.put(file.getPath(), file));
+            return merged.values();
+        });
+    }
+
+    /**
+     * Re-parses a single locator file and swaps it into the registry; a file that no longer exists is removed.
+     * If the file does not parse, the error is logged and the last good index stays published.
+     *
+     * @param file The changed locator file.
+     * @return True if a new index was published.
+     */
+    public static boolean reload(Path file) {
+        Path absolute = file.toAbsolutePath().normalize();
+        if (!Files.exists(absolute)) {
+            publish(current -> {
+                Map<Path, LocatorFile> remaining = new TreeMap<>(current.getFiles());
+                remaining.remove(absolute);
+                return remaining.values();
+            });
+            logger.info("Removed locator file {}", absolute);
+            return true;
+        }
+        try {
+            Map<Path, String> root = new LinkedHashMap<>();
+            root.put(absolute, appOf(absolute));
+            add(root);
+            return true;
+        } catch (RuntimeException e) {
+            logger.error("Keeping last good locators, reload of {} failed: {}", absolute, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Removes every locator from the registry.
+     */
+    public static void clear() {
+        publish(current -> List.of());
+    }
+
+    /**
+     * Lists the locator files under the given roots. Missing roots are logged and skipped.
+     * A file reachable from several roots keeps the first app it was given.
+     *
+     * @param roots Locator file or directory to its app name, or null.
+     * @return Normalised absolute paths, without duplicates, to their app.
+     */
+    static Map<Path, String> discover(Map<Path, String> roots) {
+        Map<Path, String> files = new LinkedHashMap<>();
+        roots.forEach((root, app) -> {
+            Path absolute = root.toAbsolutePath().normalize();
+            if (app != null) {
+                appRoots.put(absolute, app);
+            }
+            if (Files.isRegularFile(absolute)) {
+                addFile(files, absolute, app);
+            } else if (Files.isDirectory(absolute)) {
+                try (Stream<Path> walk = Files.walk(absolute)) {
+                    walk.filter(Files::isRegularFile).filter(LocatorRegistry::isYaml).forEach(file -> addFile(files, file, app));
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to list locator directory: " + root, e);
+                }
+            } else {
+                logger.warn("Locator path not found, skipping: {}", root);
+            }
+        });
+        return files;
+    }
+
+    private static void addFile(Map<Path, String> files, Path file, String app) {
+        if (files.get(file) == null) {
+            files.put(file, app);
+        }
+    }
+
+    private static Map<Path, String> withoutApp(Collection<Path> roots) {
+        Map<Path, String> result = new LinkedHashMap<>();
+        roots.forEach(root -> result.put(root, null));
+        return result;
+    }
+
+    // The app of the most specific registered root containing the file
+    private static String appOf(Path file) {
+        Path best = null;
+        for (Path root : appRoots.keySet()) {
+            if (file.startsWith(root) && (best == null || root.getNameCount() > best.getNameCount())) {
+                best = root;
+            }
+        }
+        return best != null ? appRoots.get(best) : null;
+    }
+
+    static boolean isYaml(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(".yml") || name.endsWith(".yaml");
+    }
+
+    private static List<LocatorFile> parseAll(Map<Path, String> files) {
+        long start = System.nanoTime();
+        boolean lazy = isLazy();
+        LocatorCache cache = lazy ? null : LocatorCache.shared();
+        Queue<String> errors = new ConcurrentLinkedQueue<>();
+        List<LocatorFile> parsed = new ArrayList<>(files.entrySet()).parallelStream()
+                .map(entry -> {
+                    try {
+                        LocatorFile file = lazy ? LocatorFile.scan(entry.getKey()) : cache.load(entry.getKey());
+                        return file.withApp(entry.getValue());
+                    } catch (RuntimeException e) {
+                        errors.add(e.getMessage());
+                        return null;
+                    }
+                })
+                .toList();
+        if (cache != null) {
+            cache.save();
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException(String.join("\n", errors));
+        }
+        logger.debug("{} {} locator file(s) in {} ms", lazy ? "Scanned" : "Loaded", files.size(),
+                (System.nanoTime() - start) / 1_000_000);
+        return parsed;
+    }
+
+    private static LocatorIndex publish(Function<LocatorIndex, Collection<LocatorFile>> update) {
+        writeLock.lock();
+        try {
+            LocatorIndex next = LocatorIndex.of(update.apply(snapshot));
+            snapshot = next;
+            logger.debug("Published {} locator page(s) from {} file(s)", next.getPages().size(), next.getFiles().size());
+            return next;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.fluxion.core;
+
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * LocatorSyntax checks that a locator's value is well formed before any browser sees it.
+ *
+ * <p>XPath is compiled with the JDK's XPath 1.0 engine, the version browsers implement. CSS selectors get a
+ * structural check: balanced brackets, parentheses and quotes, no empty list entries, no dangling combinators,
+ * well-formed attribute selectors, and a name after every {@code #}, {@code .} and {@code :}. Tag names must be
+ * plain identifiers; other types only need a non-blank value.</p>
+ */
+public final class LocatorSyntax {
+    private static final Pattern TAG_NAME = Pattern.compile("[A-Za-z][\\w-]*");
+    private static final Pattern ATTRIBUTE = Pattern.compile(
+            "\\s*[-\\w|*]+\\s*(?:[~|^$*]?=\\s*(?:\"(?:[^\"\\\\]|\\\\.)*\"|'(?:[^'\\\\]|\\\\.)*'|[^\\s\"'\\]]+)(?:\\s+[iIsS])?)?\\s*");
+    // XPath objects are not thread-safe and costly to create
+    private static final ThreadLocal<XPath> XPATH = ThreadLocal.withInitial(() -> XPathFactory.newInstance().newXPath());
+
+    private LocatorSyntax() {
+    }
+
+    /**
+     * @param locator A compiled locator.
+     * @return A description of the problem, or null if the locator is well formed.
+     */
+    public static String check(Locator locator) {
+        String value = locator.getValue();
+        if (value.isBlank()) {
+            return "empty " + locator.getType() + " value";
+        }
+        return switch (locator.getType()) {
+            case "xpath" -> checkXPath(value);
+            case "css" -> checkCss(value);
+            case "tagname" -> TAG_NAME.matcher(value.trim()).matches() ? null : "invalid tag name '" + value + "'";
+            default -> null;
+        };
+    }
+
+    /**
+     * @param xpath An XPath expression.
+     * @return A description of the problem, or null if it compiles.
+     */
+    public static String checkXPath(String xpath) {
+        try {
+            XPATH.get().compile(xpath);
+            return null;
+        } catch (XPathExpressionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return "invalid XPath: " + (cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * @param css A CSS selector or selector list.
+     * @return A description of the problem, or null if it is well formed.
+     */
+    public static String checkCss(String css) {
+        List<String> selectors = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int brackets = 0;
+        int parens = 0;
+        char quote = 0;
+        for (int i = 0; i < css.length(); i++) {
+            char c = css.charAt(i);
+            if (c == '\\' && i + 1 < css.length()) {
+                current.append(c).append(css.charAt(++i));
+                continue;
+            }
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '[') {
+                if (brackets > 0) {
+                    return "invalid CSS: '[' inside an attribute selector";
+                }
+                brackets++;
+            } else if (c == ']') {
+                if (--brackets < 0) {
+                    return "invalid CSS: unbalanced ']'";
+                }
+            } else if (c == '(') {
+                parens++;
+            } else if (c == ')') {
+                if (--parens < 0) {
+                    return "invalid CSS: unbalanced ')'";
+                }
+            } else if (c == ',' && brackets == 0 && parens == 0) {
+                selectors.add(current.toString());
+                current.setLength(0);
+                continue;
+            }
+            current.append(c);
+        }
+        if (quote != 0) {
+            return "invalid CSS: unterminated string";
+        }
+        if (brackets != 0 || parens != 0) {
+            return "invalid CSS: unbalanced " + (brackets != 0 ? "'['" : "'('");
+        }
+        selectors.add(current.toString());
+        for (String selector : selectors) {
+            String problem = checkSelector(selector.trim());
+            if (problem != null) {
+                return "invalid CSS: " + problem;
+            }
+        }
+        return null;
+    }
+
+    // One complex selector, already known to be balanced
+    private static String checkSelector(String selector) {
+        if (selector.isEmpty()) {
+            return "empty selector";
+        }
+        boolean expectCompound = true;
+        int i = 0;
+        while (i < selector.length()) {
+            char c = selector.charAt(i);
+            if (c == '>' || c == '+' || c == '~') {
+                if (expectCompound) {
+                    return "combinator '" + c + "' without a selector before it";
+                }
+                expectCompound = true;
+                i++;
+            } else if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '[') {
+                int end = closing(selector, i, '[', ']');
+                if (!ATTRIBUTE.matcher(selector.substring(i + 1, end)).matches()) {
+                    return "malformed attribute selector '" + selector.substring(i, end + 1) + "'";
+                }
+                expectCompound = false;
+                i = end + 1;
+            } else if (c == '#' || c == '.' || c == ':') {
+                int start = i + 1;
+                if (c == ':' && start < selector.length() && selector.charAt(start) == ':') {
+                    start++;
+                }
+                int end = identifierEnd(selector, start);
+                if (end == start) {
+                    return "missing name after '" + c + "'";
+                }
+                i = end;
+                if (c == ':' && i < selector.length() && selector.charAt(i) == '(') {
+                    i = closing(selector, i, '(', ')') + 1;
+                }
+                expectCompound = false;
+            } else if (c == '*' || isIdentifierChar(c)) {
+                i = c == '*' ? i + 1 : identifierEnd(selector, i);
+                expectCompound = false;
+            } else {
+                return "unexpected '" + c + "'";
+            }
+        }
+        return expectCompound ? "combinator without a selector after it" : null;
+    }
+
+    private static int identifierEnd(String selector, int start) {
+        int i = start;
+        while (i < selector.length()) {
+            char c = selector.charAt(i);
+            if (c == '\\' && i + 1 < selector.length()) {
+                i += 2;
+            } else if (isIdentifierChar(c) || c == '|') {
+                i++;
+            } else {
+                break;
+            }
+        }
+        return i;
+    }
+
+    private static boolean isIdentifierChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '-' || c == '_' || c > 0x7f;
+    }
+
+    // The matching closing character, skipping quoted strings and nested pairs
+    private static int closing(String selector, int open, char opening, char closingChar) {
+        int depth = 0;
+        char quote = 0;
+        for (int i = open; i < selector.length(); i++) {
+            char c = selector.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == opening) {
+                depth++;
+            } else if (c == closingChar && --depth == 0) {
+                return i;
+            }
+        }
+        return selector.length() - 1;
+    }
+}
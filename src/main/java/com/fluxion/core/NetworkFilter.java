@@ -0,0 +1,258 @@
+package com.fluxion.core;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonInput;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * NetworkFilter applies a {@link NetworkPolicy} to browser sessions over the DevTools protocol and counts
+ * their traffic.
+ *
+ * <p>Blocked URLs are handed to the browser ({@code Network.setBlockedURLs}), which drops them without a
+ * round-trip to the framework. Requests are only paused ({@code Fetch}) when the policy has stubs or an
+ * allow list, and then only those that may match a stub unless an allow list needs to see every request.
+ * Commands and events are sent by name, so any Chromium version works without version-specific classes.
+ * Firefox and sessions without DevTools are left unfiltered with a warning.</p>
+ *
+ * <p>Every filtered session counts its requests, blocked requests, stubbed requests and bytes, and bytes
+ * loaded over the network. {@link #take(WebDriver)} returns and resets the counts, which the step definitions
+ * log for each scenario; {@link #summary()} gives the totals of the run.</p>
+ */
+public final class NetworkFilter {
+    private static final Logger logger = LogManager.getLogger(NetworkFilter.class);
+    private static final Function<JsonInput, Map<String, Object>> AS_MAP = input -> input.read(Json.MAP_TYPE);
+
+    // Weak keys: a session's counts go away with the session, whoever quits it
+    private static final Map<WebDriver, Counters> sessions = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Counters totals = new Counters();
+    private static final Set<String> unsupported = ConcurrentHashMap.newKeySet();
+
+    private NetworkFilter() {
+    }
+
+    /**
+     * Traffic of one session since the last {@link #take(WebDriver)}.
+     *
+     * @param requests     Requests the page made.
+     * @param blocked      Requests that were blocked.
+     * @param stubbed      Requests answered from a fixture.
+     * @param stubbedBytes Bytes served from fixtures instead of the network.
+     * @param loadedBytes  Bytes loaded over the network, as encoded on the wire.
+     */
+    public record Traffic(long requests, long blocked, long stubbed, long stubbedBytes, long loadedBytes) {
+
+        /**
+         * @return A one-line summary for logs and reports.
+         */
+        public String describe() {
+            return requests + " request(s), " + blocked + " blocked, " + stubbed + " stubbed (" + stubbedBytes
+                    + " bytes from fixtures), " + loadedBytes + " bytes loaded";
+        }
+    }
+
+    private static final class Counters {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder blocked = new LongAdder();
+        private final LongAdder stubbed = new LongAdder();
+        private final LongAdder stubbedBytes = new LongAdder();
+        private final LongAdder loadedBytes = new LongAdder();
+        // Network request ids of stubbed responses, whose bytes did not come over the network
+        private final Set<String> stubbedIds = ConcurrentHashMap.newKeySet();
+
+        private Traffic take() {
+            return new Traffic(requests.sumThenReset(), blocked.sumThenReset(), stubbed.sumThenReset(),
+                    stubbedBytes.sumThenReset(), loadedBytes.sumThenReset());
+        }
+
+        private Traffic sum() {
+            return new Traffic(requests.sum(), blocked.sum(), stubbed.sum(), stubbedBytes.sum(), loadedBytes.sum());
+        }
+    }
+
+    /**
+     * Wraps a factory so every session it creates is filtered by the policy in config.yml.
+     *
+     * @param factory The factory to wrap.
+     * @return The wrapping factory, or the factory itself if no policy is configured.
+     */
+    public static DriverFactory wrap(DriverFactory factory) {
+        NetworkPolicy policy = NetworkPolicy.fromConfig();
+        if (policy == null) {
+            return factory;
+        }
+        logger.info("Network policy: {}", policy);
+        return new DriverFactory() {
+            @Override
+            public WebDriver create(String browser) {
+                WebDriver driver = factory.create(browser);
+                attach(driver, browser, policy);
+                return driver;
+            }
+
+            @Override
+            public String describe(String browser) {
+                return factory.describe(browser);
+            }
+        };
+    }
+
+    /**
+     * Applies a policy to a session. Sessions without DevTools support are left unfiltered.
+     *
+     * @param driver  The session.
+     * @param browser The browser type, for messages.
+     * @param policy  The policy.
+     * @return True if the policy is in effect.
+     */
+    public static boolean attach(WebDriver driver, String browser, NetworkPolicy policy) {
+        long started = LatencyMetrics.start();
+        Optional<DevTools> found = devTools(driver);
+        if (found.isEmpty()) {
+            if (unsupported.add(browser)) {
+                logger.warn("Network policy needs a Chromium browser with DevTools; {} sessions are not filtered", browser);
+            }
+            return false;
+        }
+        DevTools devTools = found.get();
+        Counters counters = new Counters();
+        try {
+            devTools.createSessionIfThereIsNotOne();
+            devTools.addListener(new Event<>("Network.requestWillBeSent", AS_MAP), event -> {
+                counters.requests.increment();
+                totals.requests.increment();
+            });
+            devTools.addListener(new Event<>("Network.loadingFinished", AS_MAP), event -> {
+                if (!counters.stubbedIds.remove(String.valueOf(event.get("requestId")))) {
+                    long bytes = event.get("encodedDataLength") instanceof Number number ? number.longValue() : 0;
+                    counters.loadedBytes.add(bytes);
+                    totals.loadedBytes.add(bytes);
+                }
+            });
+            devTools.addListener(new Event<>("Network.loadingFailed", AS_MAP), event -> {
+                counters.stubbedIds.remove(String.valueOf(event.get("requestId")));
+                if (String.valueOf(event.get("errorText")).contains("ERR_BLOCKED_BY_CLIENT")) {
+                    counters.blocked.increment();
+                    totals.blocked.increment();
+                }
+            });
+            devTools.send(new Command<>("Network.enable", Map.of()));
+            if (!policy.getBlock().isEmpty()) {
+                devTools.send(new Command<>("Network.setBlockedURLs", Map.of("urls", policy.getBlock())));
+            }
+            if (policy.needsInterception()) {
+                devTools.addListener(new Event<>("Fetch.requestPaused", AS_MAP),
+                        event -> onRequestPaused(devTools, policy, counters, event));
+                devTools.send(new Command<>("Fetch.enable", Map.of("patterns", fetchPatterns(policy))));
+            }
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Failed to apply the network policy to a " + browser + " session", e);
+        }
+        sessions.put(driver, counters);
+        LatencyMetrics.record("network.attach", browser, started);
+        return true;
+    }
+
+    /**
+     * Returns the session's traffic since the last call and starts counting from zero.
+     *
+     * @param driver The session.
+     * @return The traffic, or null if the session is not filtered.
+     */
+    public static Traffic take(WebDriver driver) {
+        Counters counters = driver != null ? sessions.get(driver) : null;
+        if (counters == null) {
+            return null;
+        }
+        return counters.take();
+    }
+
+    /**
+     * @return True if any session of this run was filtered.
+     */
+    public static boolean isActive() {
+        return totals.requests.sum() > 0 || !sessions.isEmpty();
+    }
+
+    /**
+     * @return The traffic of every filtered session of the run, as a one-line summary.
+     */
+    public static String summary() {
+        return "Network filter: " + totals.sum().describe();
+    }
+
+    private static Optional<DevTools> devTools(WebDriver driver) {
+        WebDriver candidate = driver;
+        if (!(candidate instanceof HasDevTools) && candidate instanceof RemoteWebDriver) {
+            // Remote sessions get DevTools through the grid's se:cdp endpoint
+            candidate = new Augmenter().augment(candidate);
+        }
+        if (candidate instanceof HasDevTools hasDevTools) {
+            try {
+                return hasDevTools.maybeGetDevTools();
+            } catch (RuntimeException e) {
+                logger.debug("DevTools not available: {}", e.getMessage());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static List<Map<String, Object>> fetchPatterns(NetworkPolicy policy) {
+        List<Map<String, Object>> patterns = new ArrayList<>();
+        if (!policy.getAllow().isEmpty()) {
+            patterns.add(Map.of("urlPattern", "*", "requestStage", "Request"));
+        } else {
+            policy.getStubs().forEach(stub -> patterns.add(Map.of("urlPattern", stub.pattern(), "requestStage", "Request")));
+        }
+        return patterns;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void onRequestPaused(DevTools devTools, NetworkPolicy policy, Counters counters,
+                                        Map<String, Object> event) {
+        Object requestId = event.get("requestId");
+        String url = String.valueOf(((Map<String, Object>) event.get("request")).get("url"));
+        try {
+            switch (policy.decide(url)) {
+                case STUB -> {
+                    NetworkPolicy.Stub stub = policy.stubFor(url);
+                    if (event.get("networkId") != null) {
+                        counters.stubbedIds.add(String.valueOf(event.get("networkId")));
+                    }
+                    devTools.send(new Command<>("Fetch.fulfillRequest", Map.of("requestId", requestId,
+                            "responseCode", 200,
+                            "responseHeaders", List.of(Map.of("name", "Content-Type", "value", stub.contentType())),
+                            "body", stub.base64())));
+                    counters.stubbed.increment();
+                    counters.stubbedBytes.add(stub.size());
+                    totals.stubbed.increment();
+                    totals.stubbedBytes.add(stub.size());
+                }
+                case BLOCK -> devTools.send(new Command<>("Fetch.failRequest",
+                        Map.of("requestId", requestId, "errorReason", "BlockedByClient")));
+                case CONTINUE -> devTools.send(new Command<>("Fetch.continueRequest", Map.of("requestId", requestId)));
+            }
+        } catch (RuntimeException e) {
+            // The page or the session may be gone by the time the answer arrives
+            logger.debug("Could not answer paused request {}: {}", url, e.getMessage());
+        }
+    }
+}
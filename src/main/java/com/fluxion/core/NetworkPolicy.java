@@ -0,0 +1,189 @@
+package com.fluxion.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * NetworkPolicy decides which browser requests are blocked, answered from a local fixture or let through.
+ *
+ * <p>It is read from config.yml:</p>
+ * <pre>
+ * network:
+ *   enabled: true
+ *   block: ["*google-analytics.com/*", "*.woff2"]   # never requested
+ *   allow: ["http://localhost:8080/*"]              # if set, everything else is blocked
+ * networkStubs:
+ *   "*&#47;api/flags*": src/test/resources/fixtures/flags.json
+ * </pre>
+ *
+ * <p>Patterns match the whole URL; {@code *} matches any run of characters and {@code ?} a single one, as in
+ * the DevTools protocol. A stub wins over the block and allow lists. Fixture files are read once, when the
+ * policy is created.</p>
+ */
+public final class NetworkPolicy {
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "json", "application/json", "js", "text/javascript", "css", "text/css", "html", "text/html",
+            "svg", "image/svg+xml", "png", "image/png", "jpg", "image/jpeg", "gif", "image/gif",
+            "woff2", "font/woff2", "txt", "text/plain");
+
+    private final List<String> block;
+    private final List<String> allow;
+    private final List<Pattern> blockPatterns;
+    private final List<Pattern> allowPatterns;
+    private final List<Stub> stubs;
+    private final List<Pattern> stubPatterns;
+
+    /**
+     * What to do with a request.
+     */
+    public enum Decision { CONTINUE, BLOCK, STUB }
+
+    /**
+     * A fixture served instead of the network response.
+     *
+     * @param pattern     The URL pattern.
+     * @param file        The fixture file.
+     * @param contentType The response content type.
+     * @param size        The fixture size in bytes.
+     * @param base64      The fixture content, Base64 encoded as the DevTools protocol expects.
+     */
+    public record Stub(String pattern, Path file, String contentType, long size, String base64) {
+    }
+
+    /**
+     * @param block Patterns of requests to block.
+     * @param allow Patterns of requests to allow; if not empty, every other request is blocked.
+     * @param stubs Pattern to fixture file, in match order.
+     * @throws RuntimeException if a fixture file cannot be read.
+     */
+    public NetworkPolicy(List<String> block, List<String> allow, Map<String, Path> stubs) {
+        this.block = List.copyOf(block);
+        this.allow = List.copyOf(allow);
+        this.blockPatterns = compile(block);
+        this.allowPatterns = compile(allow);
+        List<Stub> loaded = new ArrayList<>();
+        stubs.forEach((pattern, file) -> loaded.add(stub(pattern, file)));
+        this.stubs = List.copyOf(loaded);
+        this.stubPatterns = compile(List.copyOf(stubs.keySet()));
+    }
+
+    /**
+     * @return The policy from config.yml, or null if {@code network.enabled} is false or nothing is configured.
+     */
+    public static NetworkPolicy fromConfig() {
+        FluxionConfig config = FluxionConfig.get();
+        if (!config.getBoolean("network.enabled")) {
+            return null;
+        }
+        NetworkPolicy policy = new NetworkPolicy(config.getList("network.block"), config.getList("network.allow"),
+                config.getPaths("networkStubs"));
+        return policy.isEmpty() ? null : policy;
+    }
+
+    public boolean isEmpty() {
+        return block.isEmpty() && allow.isEmpty() && stubs.isEmpty();
+    }
+
+    public List<String> getBlock() {
+        return block;
+    }
+
+    public List<String> getAllow() {
+        return allow;
+    }
+
+    public List<Stub> getStubs() {
+        return stubs;
+    }
+
+    /**
+     * @return True if requests have to be paused and decided one by one; blocking alone is left to the browser.
+     */
+    public boolean needsInterception() {
+        return !allow.isEmpty() || !stubs.isEmpty();
+    }
+
+    /**
+     * @param url The request URL.
+     * @return The decision for the request.
+     */
+    public Decision decide(String url) {
+        if (stubFor(url) != null) {
+            return Decision.STUB;
+        }
+        if (matches(blockPatterns, url) || (!allowPatterns.isEmpty() && !matches(allowPatterns, url))) {
+            return Decision.BLOCK;
+        }
+        return Decision.CONTINUE;
+    }
+
+    /**
+     * @param url The request URL.
+     * @return The first stub whose pattern matches, or null.
+     */
+    public Stub stubFor(String url) {
+        for (int i = 0; i < stubs.size(); i++) {
+            if (stubPatterns.get(i).matcher(url).matches()) {
+                return stubs.get(i);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "block=" + block + ", allow=" + allow + ", stubs=" + stubs.stream().map(Stub::pattern).toList();
+    }
+
+    private static boolean matches(List<Pattern> patterns, String url) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(url).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Pattern> compile(List<String> globs) {
+        return globs.stream().map(NetworkPolicy::compile).toList();
+    }
+
+    static Pattern compile(String glob) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            if (c == '*' || c == '?') {
+                if (!literal.isEmpty()) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '*' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (!literal.isEmpty()) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    private static Stub stub(String pattern, Path file) {
+        try {
+            byte[] content = Files.readAllBytes(file);
+            String name = file.getFileName().toString();
+            String extension = name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+            String contentType = CONTENT_TYPES.getOrDefault(extension, "application/octet-stream");
+            return new Stub(pattern, file, contentType, content.length, Base64.getEncoder().encodeToString(content));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read network stub fixture: " + file, e);
+        }
+    }
+}
@@ -1,14 +1,125 @@
 package com.fluxion.core;
 
 import io.cucumber.testng.AbstractTestNGCucumberTests;
+import com.fluxion.runner.FeatureValidator;
 import io.cucumber.testng.CucumberOptions;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.ITestContext;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
 
+import java.nio.file.Path;
+
+/**
+ * ParallelRunner runs every scenario as its own TestNG data provider row, in parallel.
+ *
+ * <p>The thread count is set by {@link ParallelSuiteListener}. Scenarios are ordered by
+ * {@link ScenarioScheduler} using the durations of previous runs. With {@code -Dfluxion.shard=i/K} only
+ * shard {@code i} of {@code K}, as planned by {@link ShardPlanner}, is run. {@link ScenarioSelector} runs previously
+ * failed scenarios first and can narrow the run to failed or changed scenarios. At the end of the run the
+ * durations are merged into the timing file ({@code -Dfluxion.timingsFile}) and the results into the history
+ * file ({@code -Dfluxion.historyFile}) for the next run. Features are
+ * validated first if {@code validateFeatures} or {@code -Dfluxion.dryRun} is set ({@link FeatureValidator}).</p>
+ */
 @CucumberOptions(
         features = "src/test/resources/features",  // Path to your feature files
         glue = "com.fluxion.steps",  // Path to your step definitions
-        plugin = {"pretty", "html:target/cucumber-reports.html"},  // Reporting options
+        plugin = {"pretty", "html:target/cucumber-reports.html", "json:" + ParallelRunner.CUCUMBER_JSON},  // Reporting options
         monochrome = true  // Makes the console output readable
 )
 public class ParallelRunner extends AbstractTestNGCucumberTests {
-    // No need for ParallelMode annotation here
+    public static final String CUCUMBER_JSON = "target/cucumber-reports/cucumber.json";
+    public static final String TIMINGS_FILE = "target/fluxion/timings.json";
+    public static final String HISTORY_FILE = "target/fluxion/history.json";
+    private static final Logger logger = LogManager.getLogger(ParallelRunner.class);
+
+    private static final Path timingsFile = Path.of(System.getProperty("fluxion.timingsFile", TIMINGS_FILE));
+    private static final Path historyFile = Path.of(System.getProperty("fluxion.historyFile", HISTORY_FILE));
+    private static final int[] shard = ShardPlanner.configuredShard();
+
+    // Read when the class loads, before the json plugin truncates the previous run's report.
+    // Shards only use the shared timing file, so that every shard computes the same plan.
+    private static final ScenarioTimings previousTimings = shard != null
+            ? ScenarioTimings.fromTimingFile(timingsFile)
+            : ScenarioTimings.fromTimingFile(timingsFile).mergedWith(ScenarioTimings.fromCucumberJson(
+                    System.getProperty("fluxion.timingsFrom", CUCUMBER_JSON)));
+    private static final ScenarioHistory previousHistory = shard != null
+            ? ScenarioHistory.fromHistoryFile(historyFile)
+            : ScenarioHistory.load(historyFile, CUCUMBER_JSON);
+
+    private boolean started;
+
+    /**
+     * Validates the features, if configured, before Cucumber starts and runs its BeforeAll hooks.
+     */
+    @Override
+    @BeforeClass(alwaysRun = true)
+    public void setUpClass(ITestContext context) {
+        FeatureValidator.gate(getClass());
+        super.setUpClass(context);
+        started = true;
+    }
+
+    @Override
+    @DataProvider(parallel = true)
+    public Object[][] scenarios() {
+        return plan(super.scenarios());
+    }
+
+    /**
+     * Finishes the Cucumber run, which writes the JSON report, then records this run's durations.
+     */
+    @Override
+    @AfterClass(alwaysRun = true)
+    public void tearDownClass() {
+        super.tearDownClass();
+        if (started) {
+            recordTimings();
+        }
+    }
+
+    /**
+     * Durations of previous runs. Calling this before a Cucumber runner is created makes sure they, and the
+     * results of previous runs, are read before the json plugin truncates the previous report.
+     *
+     * @return The durations the plan is based on.
+     */
+    static ScenarioTimings previousTimings() {
+        return previousTimings;
+    }
+
+    /**
+     * Applies the configured selection, shard and order to the scenario rows of a Cucumber run.
+     *
+     * @param scenarios Rows of {@code PickleWrapper} and {@code FeatureWrapper}.
+     * @return The rows to run, in run order.
+     */
+    static Object[][] plan(Object[][] scenarios) {
+        // Selected before sharding, so that every shard splits the same scenarios
+        scenarios = ScenarioSelector.select(scenarios, previousHistory);
+        if (shard != null) {
+            int total = scenarios.length;
+            scenarios = ShardPlanner.select(scenarios, previousTimings, shard[0], shard[1]);
+            logger.info("Shard {}/{}: running {} of {} scenario(s)", shard[0] + 1, shard[1], scenarios.length, total);
+        }
+        Object[][] ordered = ScenarioScheduler.order(scenarios, previousTimings, ScenarioScheduler.configuredOrder());
+        return ScenarioSelector.failedFirstConfigured() ? ScenarioSelector.failedFirst(ordered, previousHistory) : ordered;
+    }
+
+    /**
+     * Merges the durations and results of the finished run into the timing and history files.
+     */
+    static void recordTimings() {
+        ScenarioTimings thisRun = ScenarioTimings.fromCucumberJson(CUCUMBER_JSON);
+        if (!thisRun.isEmpty()) {
+            ScenarioTimings.fromTimingFile(timingsFile).mergedWith(thisRun).writeTo(timingsFile);
+            logger.info("Recorded durations of {} scenario(s) in {}", thisRun.getDurations().size(), timingsFile);
+        }
+        ScenarioHistory results = ScenarioHistory.fromCucumberJson(CUCUMBER_JSON);
+        if (!results.isEmpty()) {
+            ScenarioHistory.fromHistoryFile(historyFile).recordedWith(results).writeTo(historyFile);
+        }
+    }
 }
@@ -0,0 +1,39 @@
+package com.fluxion.core;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+
+import java.util.List;
+
+/**
+ * ParallelSuiteListener sets the number of threads the parallel scenario data provider of
+ * {@link ParallelRunner} runs on.
+ *
+ * <p>The count comes from {@code -Dfluxion.threads}, then {@code parallel.threads} in config.yml, and
+ * defaults to 4. Register it in testng.xml under {@code <listeners>}.</p>
+ */
+public class ParallelSuiteListener implements IAlterSuiteListener {
+    private static final Logger logger = LogManager.getLogger(ParallelSuiteListener.class);
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        int threads = getThreadCount();
+        int poolSize = FluxionConfig.get().getInt("driverPool.maxSize");
+        if (threads > poolSize) {
+            logger.warn("{} scenario threads share {} pooled browsers; raise driverPool.maxSize to avoid waiting", threads, poolSize);
+        }
+        for (XmlSuite suite : suites) {
+            suite.setDataProviderThreadCount(threads);
+        }
+        logger.info("Running scenarios on {} thread(s)", threads);
+    }
+
+    /**
+     * @return The configured scenario thread count.
+     */
+    public static int getThreadCount() {
+        return FluxionConfig.get().getInt("parallel.threads");
+    }
+}
@@ -0,0 +1,194 @@
+package com.fluxion.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fluxion.report.CucumberJsonReader;
+import com.fluxion.report.ScenarioResult;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * ScenarioHistory holds the latest result of every scenario, keyed like {@link ScenarioTimings}
+ * ({@code src/test/resources/features/demotest.feature:11}), and how many runs in a row it has failed.
+ *
+ * <p>Results are read from a Cucumber JSON report or from the history file the runner writes at the end of
+ * each run. Scenarios that did not run keep their previous result, so a partial run, such as a rerun of the
+ * failures, does not forget the rest of the suite.</p>
+ */
+public class ScenarioHistory {
+    private static final Logger logger = LogManager.getLogger(ScenarioHistory.class);
+
+    private static final int HISTORY_FILE_VERSION = 1;
+
+    private final Map<String, Entry> entries;
+
+    /**
+     * @param status   The latest status, e.g. {@code passed} or {@code failed}.
+     * @param failures Consecutive runs that failed, up to and including the latest.
+     */
+    public record Entry(String status, int failures) {
+
+        public boolean failed() {
+            return failures > 0;
+        }
+    }
+
+    public ScenarioHistory(Map<String, Entry> entries) {
+        this.entries = Collections.unmodifiableMap(new LinkedHashMap<>(entries));
+    }
+
+    /**
+     * Reads the results of one run from a Cucumber JSON report.
+     *
+     * @param cucumberJsonFilePath Path to the report of a previous run.
+     * @return The history; empty if the report does not exist or cannot be read.
+     */
+    public static ScenarioHistory fromCucumberJson(String cucumberJsonFilePath) {
+        if (cucumberJsonFilePath == null || !new File(cucumberJsonFilePath).isFile()) {
+            return new ScenarioHistory(Map.of());
+        }
+        try {
+            Map<String, Entry> entries = new LinkedHashMap<>();
+            for (ScenarioResult scenario : new CucumberJsonReader().read(cucumberJsonFilePath)) {
+                String status = scenario.getStatus();
+                entries.put(ScenarioTimings.key(scenario.getFeatureUri(), scenario.getLine()),
+                        new Entry(status, "failed".equals(status) ? 1 : 0));
+            }
+            logger.debug("Loaded results of {} scenario(s) from {}", entries.size(), cucumberJsonFilePath);
+            return new ScenarioHistory(entries);
+        } catch (Exception e) {
+            logger.warn("Ignoring unreadable Cucumber JSON {}: {}", cucumberJsonFilePath, e.getMessage());
+            return new ScenarioHistory(Map.of());
+        }
+    }
+
+    /**
+     * Reads a history file written by {@link #writeTo(Path)}.
+     *
+     * @param historyFile Path to the history file.
+     * @return The history; empty if the file does not exist or cannot be read.
+     */
+    public static ScenarioHistory fromHistoryFile(Path historyFile) {
+        if (!Files.isRegularFile(historyFile)) {
+            return new ScenarioHistory(Map.of());
+        }
+        try {
+            JsonNode root = new ObjectMapper().readTree(historyFile.toFile());
+            if (root == null || !root.isObject() || root.path("version").asInt() != HISTORY_FILE_VERSION) {
+                logger.warn("Ignoring history file {} with unsupported version {}", historyFile,
+                        root == null ? null : root.path("version"));
+                return new ScenarioHistory(Map.of());
+            }
+            Map<String, Entry> entries = new LinkedHashMap<>();
+            root.path("scenarios").fields().forEachRemaining(entry -> entries.put(entry.getKey(),
+                    new Entry(entry.getValue().path("status").asText(), entry.getValue().path("failures").asInt())));
+            return new ScenarioHistory(entries);
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable history file {}: {}", historyFile, e.getMessage());
+            return new ScenarioHistory(Map.of());
+        }
+    }
+
+    /**
+     * Reads the history file and adds the results of a Cucumber JSON report written after it, e.g. by a run
+     * that did not finish or did not use the framework's runners.
+     *
+     * @param historyFile          Path to the history file.
+     * @param cucumberJsonFilePath Path to the report of the last run.
+     * @return The history.
+     */
+    public static ScenarioHistory load(Path historyFile, String cucumberJsonFilePath) {
+        ScenarioHistory history = fromHistoryFile(historyFile);
+        Path report = Path.of(cucumberJsonFilePath);
+        try {
+            if (Files.isRegularFile(report) && (!Files.isRegularFile(historyFile)
+                    || Files.getLastModifiedTime(report).compareTo(Files.getLastModifiedTime(historyFile)) > 0)) {
+                return history.recordedWith(fromCucumberJson(cucumberJsonFilePath));
+            }
+        } catch (IOException e) {
+            logger.debug("Could not compare {} with {}: {}", report, historyFile, e.getMessage());
+        }
+        return history;
+    }
+
+    /**
+     * Adds the results of a later run. Scenarios that failed again extend their failure streak; scenarios that
+     * did not run keep their previous result.
+     *
+     * @param newer The results of one later run.
+     * @return The combined history.
+     */
+    public ScenarioHistory recordedWith(ScenarioHistory newer) {
+        Map<String, Entry> merged = new TreeMap<>(entries);
+        newer.entries.forEach((key, entry) -> {
+            Entry previous = entries.get(key);
+            int failures = !entry.failed() ? 0 : (previous != null ? previous.failures() : 0) + 1;
+            merged.put(key, new Entry(entry.status(), failures));
+        });
+        return new ScenarioHistory(merged);
+    }
+
+    /**
+     * Writes the history as {@code {"version": 1, "scenarios": {"<feature>:<line>": {"status": "failed",
+     * "failures": 2}}}}.
+     *
+     * @param historyFile Path to write to; parent directories are created.
+     */
+    public void writeTo(Path historyFile) {
+        ObjectNode root = JsonNodeFactory.instance.objectNode();
+        root.put("version", HISTORY_FILE_VERSION);
+        ObjectNode scenarios = root.putObject("scenarios");
+        new TreeMap<>(entries).forEach((key, entry) -> scenarios.putObject(key)
+                .put("status", entry.status())
+                .put("failures", entry.failures()));
+        try {
+            if (historyFile.getParent() != null) {
+                Files.createDirectories(historyFile.getParent());
+            }
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(historyFile.toFile(), root);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write history file: " + historyFile, e);
+        }
+    }
+
+    /**
+     * @param key The scenario key.
+     * @return Consecutive failed runs, 0 if the scenario passed last time or never ran.
+     */
+    public int getFailures(String key) {
+        Entry entry = entries.get(key);
+        return entry != null ? entry.failures() : 0;
+    }
+
+    /**
+     * @return The keys of the scenarios that failed in their latest run.
+     */
+    public Set<String> getFailed() {
+        return entries.entrySet().stream()
+                .filter(entry -> entry.getValue().failed())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    public Map<String, Entry> getEntries() {
+        return entries;
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+}
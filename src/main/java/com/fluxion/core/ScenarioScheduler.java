@@ -0,0 +1,98 @@
+package com.fluxion.core;
+
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ScenarioScheduler orders the TestNG scenario rows ({@code [PickleWrapper, FeatureWrapper]}) before they
+ * are handed to the parallel data provider.
+ *
+ * <p>Running the longest scenarios first keeps the slowest ones from starting last and stretching the tail of
+ * the run. Scenarios without a previous duration are treated as the longest, since nothing is known about them.</p>
+ */
+public final class ScenarioScheduler {
+
+    /**
+     * Supported orderings, configured with {@code parallel.order} or {@code -Dfluxion.order}.
+     */
+    public enum Order {
+        /** Every scenario sorted by its previous duration, longest first. */
+        SCENARIO,
+        /** Features sorted by total previous duration, scenarios longest first within each feature. */
+        FEATURE,
+        /** File order, as discovered by Cucumber. */
+        NONE
+    }
+
+    private ScenarioScheduler() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @return The configured ordering, {@link Order#SCENARIO} by default.
+     */
+    public static Order configuredOrder() {
+        return FluxionConfig.get().getEnum("parallel.order", Order.class);
+    }
+
+    /**
+     * Orders scenario rows.
+     *
+     * @param scenarios Rows as returned by {@code AbstractTestNGCucumberTests.scenarios()}.
+     * @param timings   Durations from the previous run.
+     * @param order     The ordering to apply.
+     * @return The rows in execution order.
+     */
+    public static Object[][] order(Object[][] scenarios, ScenarioTimings timings, Order order) {
+        if (order == Order.NONE || timings.isEmpty()) {
+            return scenarios;
+        }
+        Comparator<Object[]> longestFirst = Comparator.comparingLong((Object[] row) -> weight(row, timings)).reversed();
+        if (order == Order.SCENARIO) {
+            Object[][] sorted = scenarios.clone();
+            Arrays.sort(sorted, longestFirst);
+            return sorted;
+        }
+
+        Map<String, List<Object[]>> features = new LinkedHashMap<>();
+        for (Object[] row : scenarios) {
+            features.computeIfAbsent(pickle(row).getUri().toString(), uri -> new ArrayList<>()).add(row);
+        }
+        List<List<Object[]>> groups = new ArrayList<>(features.values());
+        groups.forEach(group -> group.sort(longestFirst));
+        groups.sort(Comparator.comparingLong((List<Object[]> group) -> group.stream()
+                .mapToLong(row -> weight(row, timings))
+                .reduce(0L, ScenarioScheduler::saturatedAdd)).reversed());
+        return groups.stream().flatMap(List::stream).toArray(Object[][]::new);
+    }
+
+    /**
+     * @param row A scenario row.
+     * @return The {@link ScenarioTimings} key of the row's scenario.
+     */
+    public static String key(Object[] row) {
+        Pickle pickle = pickle(row);
+        return ScenarioTimings.key(pickle.getUri().toString(), pickle.getLine());
+    }
+
+    private static Pickle pickle(Object[] row) {
+        return ((PickleWrapper) row[0]).getPickle();
+    }
+
+    private static long weight(Object[] row, ScenarioTimings timings) {
+        long duration = timings.getDuration(key(row));
+        return duration < 0 ? Long.MAX_VALUE : duration;
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+}
@@ -0,0 +1,156 @@
+package com.fluxion.core;
+
+import com.fluxion.runner.FeatureValidator;
+import io.cucumber.testng.PickleWrapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * ScenarioSelector picks and reorders scenario rows ({@code [PickleWrapper, FeatureWrapper]}) based on the
+ * results of previous runs and on what changed since a git revision.
+ *
+ * <p>With {@code selection.failedFirst} (or {@code -Dfluxion.failedFirst}) the scenarios that failed last time
+ * start before all others, longest failure streak first. {@code selection.onlyFailed}
+ * ({@code -Dfluxion.onlyFailed}) runs only those, and {@code selection.changedSince}
+ * ({@code -Dfluxion.changedSince=origin/main}) runs only the scenarios of changed feature files and the
+ * scenarios whose steps use a page or field whose locator changed ({@link LocatorDiff}). When both are set, a
+ * scenario that matches either runs. Changes to other files, such as step definitions, are not mapped to
+ * scenarios.</p>
+ */
+public final class ScenarioSelector {
+    private static final Logger logger = LogManager.getLogger(ScenarioSelector.class);
+
+    private ScenarioSelector() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @return True if previously failed scenarios run first, the default.
+     */
+    public static boolean failedFirstConfigured() {
+        return FluxionConfig.get().getBoolean("selection.failedFirst");
+    }
+
+    /**
+     * @return True if only previously failed scenarios are selected.
+     */
+    public static boolean onlyFailedConfigured() {
+        return FluxionConfig.get().getBoolean("selection.onlyFailed");
+    }
+
+    /**
+     * @return The git revision to select impacted scenarios against, or null to select every scenario.
+     */
+    public static String changedSinceConfigured() {
+        String revision = FluxionConfig.get().getString("selection.changedSince");
+        return revision == null || revision.isBlank() ? null : revision.trim();
+    }
+
+    /**
+     * Applies the configured selection: previously failed scenarios and/or those impacted by changes since the
+     * configured revision.
+     *
+     * @param scenarios Rows as returned by {@code AbstractTestNGCucumberTests.scenarios()}.
+     * @param history   Results of previous runs.
+     * @return The selected rows, in their original order; all rows if no selection is configured or git cannot
+     * tell what changed since the revision.
+     */
+    public static Object[][] select(Object[][] scenarios, ScenarioHistory history) {
+        boolean onlyFailed = onlyFailedConfigured();
+        String revision = changedSinceConfigured();
+        if (!onlyFailed && revision == null) {
+            return scenarios;
+        }
+        Set<String> failed = onlyFailed ? history.getFailed() : Set.of();
+        Set<String> impacted = Set.of();
+        if (revision != null) {
+            try {
+                LocatorDiff.Changes changes = LocatorDiff.since(revision, LocatorManager.getIndex().getFiles().keySet());
+                impacted = impacted(scenarios, changes, references(scenarios));
+                logger.info("Changes since {}: {} file(s), locators {}", revision, changes.files().size(),
+                        changes.references().isEmpty() ? "unchanged" : changes.references());
+            } catch (IllegalStateException e) {
+                // Nothing is known about what changed, so nothing may be left out
+                logger.error("Cannot select scenarios changed since {}, running all of them: {}", revision, e.getMessage());
+                return scenarios;
+            }
+        }
+        Set<String> selected = new LinkedHashSet<>(failed);
+        selected.addAll(impacted);
+        Object[][] rows = Arrays.stream(scenarios)
+                .filter(row -> selected.contains(ScenarioScheduler.key(row)))
+                .toArray(Object[][]::new);
+        logger.info("Selected {} of {} scenario(s): {} previously failed, {} impacted{}", rows.length, scenarios.length,
+                failed.size(), impacted.size(), revision != null ? " by changes since " + revision : "");
+        return rows;
+    }
+
+    /**
+     * Selects the scenarios affected by a set of changes.
+     *
+     * @param scenarios  Scenario rows.
+     * @param changes    The changed files and locators.
+     * @param references Scenario key to the pages and fields it uses, see {@link FeatureValidator.Result#references()}.
+     *                   Scenarios without an entry are always selected, since nothing is known about them.
+     * @return The keys of the selected scenarios.
+     */
+    public static Set<String> impacted(Object[][] scenarios, LocatorDiff.Changes changes,
+                                       Map<String, Set<String>> references) {
+        Set<String> impacted = new LinkedHashSet<>();
+        for (Object[] row : scenarios) {
+            String key = ScenarioScheduler.key(row);
+            Set<String> used = references.get(key);
+            Path feature = featurePath(row);
+            if (used == null || (feature != null && changes.files().contains(feature))
+                    || !Collections.disjoint(used, changes.references())) {
+                impacted.add(key);
+            }
+        }
+        return impacted;
+    }
+
+    /**
+     * Moves the scenarios that failed in their latest run to the front, longest failure streak first, and
+     * keeps the order of all other rows.
+     *
+     * @param scenarios Scenario rows, e.g. as ordered by {@link ScenarioScheduler}.
+     * @param history   Results of previous runs.
+     * @return The reordered rows.
+     */
+    public static Object[][] failedFirst(Object[][] scenarios, ScenarioHistory history) {
+        if (history.isEmpty()) {
+            return scenarios;
+        }
+        Object[][] sorted = scenarios.clone();
+        // Stable, so rows with the same streak keep the scheduler's order
+        Arrays.sort(sorted, Comparator.comparingInt((Object[] row) -> history.getFailures(ScenarioScheduler.key(row)))
+                .reversed());
+        return sorted;
+    }
+
+    // The pages and fields each scenario of the rows' feature files uses
+    private static Map<String, Set<String>> references(Object[][] scenarios) {
+        List<Path> features = new ArrayList<>(new LinkedHashSet<>(Arrays.stream(scenarios)
+                .map(ScenarioSelector::featurePath)
+                .filter(Objects::nonNull)
+                .toList()));
+        return new FeatureValidator(LocatorManager.getIndex(), FluxionConfig.get()).check(features).references();
+    }
+
+    private static Path featurePath(Object[] row) {
+        URI uri = ((PickleWrapper) row[0]).getPickle().getUri();
+        return "file".equals(uri.getScheme()) ? Path.of(uri).toAbsolutePath().normalize() : null;
+    }
+}
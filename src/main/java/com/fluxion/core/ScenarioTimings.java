@@ -0,0 +1,197 @@
+package com.fluxion.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fluxion.report.CucumberJsonReader;
+import com.fluxion.report.ScenarioResult;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * ScenarioTimings holds per-scenario durations from a previous run, keyed by feature path and
+ * scenario line ({@code src/test/resources/features/demotest.feature:11}).
+ *
+ * <p>Timings are read from a Cucumber JSON report or from the timing file the runner writes at the end of
+ * each run, which keeps the latest known duration of every scenario across runs and shards.</p>
+ */
+public class ScenarioTimings {
+    private static final Logger logger = LogManager.getLogger(ScenarioTimings.class);
+
+    private static final int TIMING_FILE_VERSION = 1;
+
+    private final Map<String, Long> durations;
+
+    public ScenarioTimings(Map<String, Long> durations) {
+        this.durations = Collections.unmodifiableMap(new LinkedHashMap<>(durations));
+    }
+
+    /**
+     * Reads scenario durations from a Cucumber JSON report.
+     *
+     * @param cucumberJsonFilePath Path to the report of a previous run.
+     * @return The timings; empty if the report does not exist or cannot be read.
+     */
+    public static ScenarioTimings fromCucumberJson(String cucumberJsonFilePath) {
+        if (cucumberJsonFilePath == null || !new File(cucumberJsonFilePath).isFile()) {
+            logger.debug("No previous Cucumber JSON at {}, scenarios keep their file order", cucumberJsonFilePath);
+            return new ScenarioTimings(Map.of());
+        }
+        try {
+            Map<String, Long> durations = new LinkedHashMap<>();
+            for (ScenarioResult scenario : new CucumberJsonReader().read(cucumberJsonFilePath)) {
+                durations.put(key(scenario.getFeatureUri(), scenario.getLine()), scenario.getDurationNanos());
+            }
+            logger.debug("Loaded durations of {} scenario(s) from {}", durations.size(), cucumberJsonFilePath);
+            return new ScenarioTimings(durations);
+        } catch (Exception e) {
+            logger.warn("Ignoring unreadable Cucumber JSON {}: {}", cucumberJsonFilePath, e.getMessage());
+            return new ScenarioTimings(Map.of());
+        }
+    }
+
+    /**
+     * Reads a timing file written by {@link #writeTo(Path)}.
+     *
+     * @param timingFile Path to the timing file.
+     * @return The timings; empty if the file does not exist or cannot be read.
+     */
+    public static ScenarioTimings fromTimingFile(Path timingFile) {
+        if (!Files.isRegularFile(timingFile)) {
+            return new ScenarioTimings(Map.of());
+        }
+        try {
+            JsonNode root = new ObjectMapper().readTree(timingFile.toFile());
+            if (root == null || !root.isObject()) {
+                // A Cucumber JSON report is an array; see fromFile
+                return new ScenarioTimings(Map.of());
+            }
+            if (root.path("version").asInt() != TIMING_FILE_VERSION) {
+                logger.warn("Ignoring timing file {} with unsupported version {}", timingFile, root.path("version"));
+                return new ScenarioTimings(Map.of());
+            }
+            Map<String, Long> durations = new LinkedHashMap<>();
+            root.path("durations").fields().forEachRemaining(entry -> durations.put(entry.getKey(), entry.getValue().asLong()));
+            return new ScenarioTimings(durations);
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable timing file {}: {}", timingFile, e.getMessage());
+            return new ScenarioTimings(Map.of());
+        }
+    }
+
+    /**
+     * Reads timings from either a timing file or a Cucumber JSON report, depending on the content.
+     *
+     * @param file A timing file or Cucumber JSON report.
+     * @return The timings; empty if the file does not exist or cannot be read.
+     */
+    public static ScenarioTimings fromFile(Path file) {
+        ScenarioTimings timings = fromTimingFile(file);
+        return timings.isEmpty() ? fromCucumberJson(file.toString()) : timings;
+    }
+
+    /**
+     * Combines these timings with newer ones; scenarios present in both take the newer duration.
+     *
+     * @param newer Timings from a later run or another shard.
+     * @return The merged timings.
+     */
+    public ScenarioTimings mergedWith(ScenarioTimings newer) {
+        Map<String, Long> merged = new TreeMap<>(durations);
+        merged.putAll(newer.durations);
+        return new ScenarioTimings(merged);
+    }
+
+    /**
+     * Writes the timings as {@code {"version": 1, "durations": {"<feature>:<line>": <nanoseconds>}}}.
+     *
+     * @param timingFile Path to write to; parent directories are created.
+     */
+    public void writeTo(Path timingFile) {
+        ObjectNode root = JsonNodeFactory.instance.objectNode();
+        root.put("version", TIMING_FILE_VERSION);
+        ObjectNode entries = root.putObject("durations");
+        new TreeMap<>(durations).forEach(entries::put);
+        try {
+            if (timingFile.getParent() != null) {
+                Files.createDirectories(timingFile.getParent());
+            }
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(timingFile.toFile(), root);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write timing file: " + timingFile, e);
+        }
+    }
+
+    /**
+     * Merges timing files and Cucumber JSON reports into one timing file, e.g. after all CI shards finished.
+     * Later inputs win for scenarios present in several files.
+     *
+     * <p>Usage: {@code ScenarioTimings <output> <input>...}</p>
+     *
+     * @param args The output path followed by the input paths.
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: ScenarioTimings <output timing file> <timing file or cucumber json>...");
+            System.exit(2);
+        }
+        ScenarioTimings merged = new ScenarioTimings(Map.of());
+        for (int i = 1; i < args.length; i++) {
+            merged = merged.mergedWith(fromFile(Path.of(args[i])));
+        }
+        merged.writeTo(Path.of(args[0]));
+        System.out.println("Wrote " + merged.getDurations().size() + " scenario timings to " + args[0]);
+    }
+
+    /**
+     * Builds the key of a scenario. Feature URIs are reduced to a path relative to the working directory, so
+     * {@code file:src/...}, {@code classpath:...} and absolute {@code file:///...} forms of the same feature match.
+     *
+     * @param featureUri The feature URI as written by Cucumber.
+     * @param line       The scenario (or example row) line.
+     * @return The scenario key.
+     */
+    public static String key(String featureUri, int line) {
+        String path = featureUri;
+        if (path.startsWith("file:")) {
+            path = path.substring("file:".length());
+        } else if (path.startsWith("classpath:")) {
+            path = path.substring("classpath:".length());
+        }
+        if (path.startsWith("//")) {
+            path = path.substring(2);
+        }
+        path = path.replace('\\', '/');
+        String workingDir = Path.of("").toAbsolutePath().toString().replace('\\', '/') + "/";
+        if (path.startsWith(workingDir)) {
+            path = path.substring(workingDir.length());
+        }
+        return path + ":" + line;
+    }
+
+    /**
+     * @param key The scenario key.
+     * @return The duration in nanoseconds, or -1 if the scenario did not run before.
+     */
+    public long getDuration(String key) {
+        return durations.getOrDefault(key, -1L);
+    }
+
+    public Map<String, Long> getDurations() {
+        return durations;
+    }
+
+    public boolean isEmpty() {
+        return durations.isEmpty();
+    }
+}
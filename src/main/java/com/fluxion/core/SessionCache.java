@@ -0,0 +1,354 @@
+package com.fluxion.core;
+
+import io.cucumber.messages.types.Step;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SessionCache skips repeated login Backgrounds by restoring the browser state they produce.
+ *
+ * <p>Tag a feature or scenario with {@code @session:<name>}, e.g. {@code @session:admin}. The first time its
+ * Background passes, the cookies, local storage and session storage of the page it ends on are captured, once
+ * the last step's navigation has left the page it started on and finished loading; a Background that never
+ * leaves that page within {@code timeout} is not captured. Later
+ * scenarios with the same tag and the same Background steps, on any pooled or new session, restore that state
+ * and open the page directly; the framework's Background steps that drive the browser are then skipped, while
+ * steps that only select a page still run. If the snapshot is older than {@code sessionCache.ttlSeconds}, or
+ * the restored page redirects elsewhere (e.g. back to the login form), the snapshot is dropped and the
+ * Background runs in full. Snapshots are kept in memory for one run only, so credentials never reach the disk.
+ * Turn the cache off with {@code sessionCache.enabled: false} or {@code -Dfluxion.sessionCache=false}.</p>
+ */
+public final class SessionCache {
+    private static final Logger logger = LogManager.getLogger(SessionCache.class);
+    public static final String TAG_PREFIX = "@session:";
+
+    private static final String READ_STORAGE = "return [JSON.stringify(Object.assign({}, window.localStorage)),"
+            + " JSON.stringify(Object.assign({}, window.sessionStorage))];";
+    private static final String WRITE_STORAGE = "var local = JSON.parse(arguments[0]), session = JSON.parse(arguments[1]);"
+            + " for (var key in local) { window.localStorage.setItem(key, local[key]); }"
+            + " for (var key in session) { window.sessionStorage.setItem(key, session[key]); }";
+    private static final String CLEAR_STORAGE = "window.localStorage.clear(); window.sessionStorage.clear();";
+
+    private static final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private static final Set<String> untracked = ConcurrentHashMap.newKeySet();
+    private static final LongAdder captures = new LongAdder();
+    private static final LongAdder restores = new LongAdder();
+    private static final LongAdder fallbacks = new LongAdder();
+    private static final LongAdder savedNanos = new LongAdder();
+
+    private SessionCache() {
+    }
+
+    /**
+     * The browser state at the end of a Background.
+     *
+     * @param origin          The page's origin, where cookies and storage are restored.
+     * @param url             The page the Background ended on.
+     * @param cookies         The page's cookies.
+     * @param localStorage    Local storage as a JSON object.
+     * @param sessionStorage  Session storage as a JSON object.
+     * @param captured        When the state was captured.
+     * @param backgroundNanos How long the Background took to run.
+     */
+    private record Snapshot(String origin, String url, Set<Cookie> cookies, String localStorage, String sessionStorage,
+                            Instant captured, long backgroundNanos) {
+    }
+
+    /**
+     * The tagged Background of one running scenario. Created by {@link SessionCache#begin}, told about every
+     * finished step with {@link #stepFinished}.
+     */
+    public static final class Login {
+        private final String name;
+        private final String key;
+        private final int steps;
+        private final boolean restored;
+        private final long restoreNanos;
+        private final long started = System.nanoTime();
+        private int finished;
+        private String lastStepUrl;
+
+        private Login(String name, String key, int steps, boolean restored, long restoreNanos) {
+            this.name = name;
+            this.key = key;
+            this.steps = steps;
+            this.restored = restored;
+            this.restoreNanos = restoreNanos;
+        }
+
+        /**
+         * @return True if the state was restored, so the Background need not run.
+         */
+        public boolean isRestored() {
+            return restored;
+        }
+
+        /**
+         * @return How long restoring took, zero if nothing was restored.
+         */
+        public Duration getRestoreTime() {
+            return Duration.ofNanos(restoreNanos);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return True while the current step belongs to a restored Background.
+         */
+        public boolean skipsCurrentStep() {
+            return restored && finished < steps;
+        }
+
+        /**
+         * Notes the page the last Background step starts on, so the capture can wait for it to navigate away.
+         *
+         * @param driver The scenario's session, may be null if it was closed.
+         */
+        public void stepStarting(WebDriver driver) {
+            if (!restored && finished == steps - 1 && driver != null) {
+                try {
+                    lastStepUrl = driver.getCurrentUrl();
+                } catch (RuntimeException e) {
+                    lastStepUrl = null;
+                }
+            }
+        }
+
+        /**
+         * Counts a finished step; once the last Background step has passed and its navigation has completed,
+         * the state is captured.
+         *
+         * @param failed True if the scenario has failed so far.
+         * @param driver The scenario's session, may be null if it was closed.
+         */
+        public void stepFinished(boolean failed, WebDriver driver) {
+            finished++;
+            if (finished == steps && !restored && !failed && driver != null && awaitNavigation(driver, name, lastStepUrl)) {
+                capture(driver, name, key, System.nanoTime() - started);
+            }
+        }
+    }
+
+    /**
+     * @return True if the cache is turned on in config.yml or by system property.
+     */
+    public static boolean isEnabled() {
+        return FluxionConfig.get().getBoolean("sessionCache.enabled");
+    }
+
+    /**
+     * @param tags A scenario's tags, including inherited feature tags.
+     * @return The session name from an {@code @session:<name>} tag, or null.
+     */
+    public static String sessionName(Collection<String> tags) {
+        for (String tag : tags) {
+            if (tag.startsWith(TAG_PREFIX) && tag.length() > TAG_PREFIX.length()) {
+                return tag.substring(TAG_PREFIX.length());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Starts tracking a tagged scenario's Background and restores its state if a fresh snapshot exists.
+     *
+     * @param driver The scenario's session.
+     * @param name   The session name from the tag.
+     * @param uri    The feature file.
+     * @param line   The scenario's line.
+     * @return The tracker, or null if the scenario has no Background.
+     */
+    public static Login begin(WebDriver driver, String name, URI uri, int line) {
+        List<Step> steps = FeatureFiles.backgroundSteps(uri, line);
+        if (steps.isEmpty()) {
+            if (untracked.add(uri + ":" + name)) {
+                logger.warn("{}{} on {} has no effect: the feature has no Background", TAG_PREFIX, name, uri);
+            }
+            return null;
+        }
+        String key = name + "#" + fingerprint(steps);
+        long started = System.nanoTime();
+        boolean restored = restore(driver, name, key);
+        return new Login(name, key, steps.size(), restored, restored ? System.nanoTime() - started : 0);
+    }
+
+    /**
+     * Drops every snapshot.
+     */
+    public static void clear() {
+        snapshots.clear();
+    }
+
+    /**
+     * @return How many Backgrounds were skipped by restoring a snapshot.
+     */
+    public static long getRestores() {
+        return restores.sum();
+    }
+
+    /**
+     * @return How many restores failed and ran the Background instead.
+     */
+    public static long getFallbacks() {
+        return fallbacks.sum();
+    }
+
+    /**
+     * @return The Background time saved by restores, net of the time the restores took.
+     */
+    public static Duration getSaved() {
+        return Duration.ofNanos(savedNanos.sum());
+    }
+
+    /**
+     * @return True if any snapshot was captured or restored in this run.
+     */
+    public static boolean isUsed() {
+        return captures.sum() > 0 || restores.sum() > 0 || fallbacks.sum() > 0;
+    }
+
+    /**
+     * @return Captures, restores, fallbacks and time saved as a one-line summary.
+     */
+    public static String summary() {
+        return String.format("Session cache: %d capture(s), %d restore(s), %d fallback(s), %.1f s saved",
+                captures.sum(), restores.sum(), fallbacks.sum(), savedNanos.sum() / 1e9);
+    }
+
+    private static boolean restore(WebDriver driver, String name, String key) {
+        Snapshot snapshot = snapshots.get(key);
+        if (snapshot == null) {
+            return false;
+        }
+        Duration ttl = FluxionConfig.get().getDuration("sessionCache.ttlSeconds");
+        if (snapshot.captured().plus(ttl).isBefore(Instant.now())) {
+            logger.debug("Session {} expired after {}", name, ttl);
+            snapshots.remove(key, snapshot);
+            return false;
+        }
+        long started = System.nanoTime();
+        try {
+            // Cookies and storage can only be set on a page of their origin
+            driver.get(snapshot.origin());
+            driver.manage().deleteAllCookies();
+            snapshot.cookies().forEach(cookie -> driver.manage().addCookie(cookie));
+            if (driver instanceof JavascriptExecutor js) {
+                js.executeScript(WRITE_STORAGE, snapshot.localStorage(), snapshot.sessionStorage());
+            }
+            driver.get(snapshot.url());
+            String current = driver.getCurrentUrl();
+            if (!normalize(current).equals(normalize(snapshot.url()))) {
+                throw new IllegalStateException("expected " + snapshot.url() + " but was redirected to " + current);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Restoring session {} failed, running the Background instead: {}", name, e.getMessage());
+            snapshots.remove(key, snapshot);
+            fallbacks.increment();
+            reset(driver);
+            return false;
+        }
+        long elapsed = System.nanoTime() - started;
+        restores.increment();
+        savedNanos.add(Math.max(0, snapshot.backgroundNanos() - elapsed));
+        LatencyMetrics.recordNanos("session.restore", name, elapsed);
+        logger.debug("Restored session {} in {} ms", name, elapsed / 1_000_000);
+        return true;
+    }
+
+    // The login's redirect may still be in flight when its click returns
+    private static boolean awaitNavigation(WebDriver driver, String name, String from) {
+        FluxionConfig config = FluxionConfig.get();
+        try {
+            new WebDriverWait(driver, config.getDuration("timeout"), config.getDuration("wait.pollMillis"))
+                    .until(d -> (from == null || !from.equals(d.getCurrentUrl()))
+                            && (!(d instanceof JavascriptExecutor js)
+                            || "complete".equals(js.executeScript("return document.readyState"))));
+            return true;
+        } catch (TimeoutException e) {
+            logger.warn("Not capturing session {}: the Background's last step did not navigate away from {}", name, from);
+            return false;
+        } catch (RuntimeException e) {
+            logger.warn("Not capturing session {}: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void capture(WebDriver driver, String name, String key, long backgroundNanos) {
+        try {
+            String url = driver.getCurrentUrl();
+            URI uri = URI.create(url);
+            if (!"http".equals(uri.getScheme()) && !"https".equals(uri.getScheme())) {
+                logger.debug("Not capturing session {}: {} is not a web page", name, url);
+                return;
+            }
+            String local = "{}";
+            String session = "{}";
+            if (driver instanceof JavascriptExecutor js) {
+                List<String> storage = (List<String>) js.executeScript(READ_STORAGE);
+                local = storage.get(0);
+                session = storage.get(1);
+            }
+            Snapshot snapshot = new Snapshot(uri.getScheme() + "://" + uri.getRawAuthority() + "/", url,
+                    Set.copyOf(driver.manage().getCookies()), local, session, Instant.now(), backgroundNanos);
+            snapshots.put(key, snapshot);
+            captures.increment();
+            LatencyMetrics.recordNanos("session.login", name, backgroundNanos);
+            logger.debug("Captured session {} ({} cookie(s)) after a {} ms Background", name, snapshot.cookies().size(),
+                    backgroundNanos / 1_000_000);
+        } catch (RuntimeException e) {
+            logger.warn("Could not capture session {}: {}", name, e.getMessage());
+        }
+    }
+
+    private static void reset(WebDriver driver) {
+        try {
+            driver.manage().deleteAllCookies();
+            if (driver instanceof JavascriptExecutor js) {
+                js.executeScript(CLEAR_STORAGE);
+            }
+        } catch (RuntimeException e) {
+            logger.trace("Session state not cleared: {}", e.getMessage());
+        }
+    }
+
+    private static String normalize(String url) {
+        int fragment = url.indexOf('#');
+        String trimmed = fragment >= 0 ? url.substring(0, fragment) : url;
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    private static String fingerprint(List<Step> steps) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Step step : steps) {
+                digest.update(FeatureFiles.text(step).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
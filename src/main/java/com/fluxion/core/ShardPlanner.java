@@ -0,0 +1,128 @@
+package com.fluxion.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * ShardPlanner splits the suite into balanced shards so several JVMs or CI agents can each run one part.
+ *
+ * <p>Scenarios are bin-packed by previous duration with the longest-processing-time rule: longest first,
+ * each into the shard with the least work so far. Scenarios without history get the average known duration.
+ * The plan only depends on the scenario keys and the timings, not on discovery order, so every shard computes
+ * the same plan independently.</p>
+ */
+public final class ShardPlanner {
+
+    private ShardPlanner() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Shard selected with {@code -Dfluxion.shard=i/K}, where {@code i} is 1-based.
+     *
+     * @return {@code [index, count]} with a 0-based index, or null when sharding is off.
+     */
+    public static int[] configuredShard() {
+        String value = System.getProperty("fluxion.shard");
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String[] parts = value.trim().split("/");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("fluxion.shard must be i/K, e.g. 1/4, but was: " + value);
+        }
+        int index = Integer.parseInt(parts[0].trim());
+        int count = Integer.parseInt(parts[1].trim());
+        if (count < 1 || index < 1 || index > count) {
+            throw new IllegalArgumentException("fluxion.shard index must be between 1 and " + count + ": " + value);
+        }
+        return new int[]{index - 1, count};
+    }
+
+    /**
+     * Assigns scenarios to shards.
+     *
+     * @param keys       Scenario keys, see {@link ScenarioTimings#key(String, int)}.
+     * @param timings    Durations from previous runs.
+     * @param shardCount Number of shards.
+     * @return Scenario key to 0-based shard index.
+     */
+    public static Map<String, Integer> plan(Iterable<String> keys, ScenarioTimings timings, int shardCount) {
+        Set<String> sortedKeys = new TreeSet<>();
+        keys.forEach(sortedKeys::add);
+        long fallback = averageDuration(sortedKeys, timings);
+
+        List<String> byDuration = new ArrayList<>(sortedKeys);
+        byDuration.sort(Comparator.comparingLong((String key) -> durationOf(key, timings, fallback)).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+
+        long[] loads = new long[shardCount];
+        Map<String, Integer> plan = new HashMap<>();
+        for (String key : byDuration) {
+            int lightest = 0;
+            for (int shard = 1; shard < shardCount; shard++) {
+                if (loads[shard] < loads[lightest]) {
+                    lightest = shard;
+                }
+            }
+            loads[lightest] += durationOf(key, timings, fallback);
+            plan.put(key, lightest);
+        }
+        return plan;
+    }
+
+    /**
+     * Estimated total duration of each shard in a plan.
+     *
+     * @param plan    The plan from {@link #plan(Iterable, ScenarioTimings, int)}.
+     * @param timings The timings the plan was built from.
+     * @param shardCount Number of shards.
+     * @return Estimated nanoseconds per shard.
+     */
+    public static long[] estimatedLoads(Map<String, Integer> plan, ScenarioTimings timings, int shardCount) {
+        long fallback = averageDuration(plan.keySet(), timings);
+        long[] loads = new long[shardCount];
+        plan.forEach((key, shard) -> loads[shard] += durationOf(key, timings, fallback));
+        return loads;
+    }
+
+    /**
+     * Keeps only the scenario rows of one shard.
+     *
+     * @param scenarios  Rows as returned by {@code AbstractTestNGCucumberTests.scenarios()}.
+     * @param timings    Durations from previous runs.
+     * @param shardIndex 0-based shard to keep.
+     * @param shardCount Number of shards.
+     * @return The rows of the selected shard, in their original order.
+     */
+    public static Object[][] select(Object[][] scenarios, ScenarioTimings timings, int shardIndex, int shardCount) {
+        Map<String, Integer> plan = plan(Arrays.stream(scenarios).map(ScenarioScheduler::key).toList(), timings, shardCount);
+        return Arrays.stream(scenarios)
+                .filter(row -> plan.get(ScenarioScheduler.key(row)) == shardIndex)
+                .toArray(Object[][]::new);
+    }
+
+    private static long averageDuration(Iterable<String> keys, ScenarioTimings timings) {
+        long total = 0;
+        int known = 0;
+        for (String key : keys) {
+            long duration = timings.getDuration(key);
+            if (duration >= 0) {
+                total += duration;
+                known++;
+            }
+        }
+        return known == 0 ? 1 : Math.max(1, total / known);
+    }
+
+    private static long durationOf(String key, ScenarioTimings timings, long fallback) {
+        long duration = timings.getDuration(key);
+        return duration < 0 ? fallback : duration;
+    }
+}
@@ -0,0 +1,146 @@
+package com.fluxion.core;
+
+import com.fluxion.runner.FeatureValidator;
+import io.cucumber.testng.CucumberOptions;
+import io.cucumber.testng.PickleWrapper;
+import io.cucumber.testng.TestNGCucumberRunner;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.ITestContext;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * VirtualThreadRunner runs scenarios on virtual threads (Java 21 and later).
+ *
+ * <p>Scenarios spend most of their time blocked on WebDriver calls, so the number of threads is not the
+ * limit; the number of browsers is. One worker per session, {@code -Dfluxion.sessions} or else
+ * {@code driverPool.maxSize}, takes scenarios from a queue in the order planned by {@link ScenarioScheduler},
+ * so no scenario waits on the driver pool and the lease timeout. Cucumber keeps one runner (backend, glue and
+ * object factory) per thread, so long-lived workers build it once per session rather than once per scenario.
+ * Sharding and timing history work as in {@link ParallelRunner}. On an older JVM the workers are platform
+ * threads.</p>
+ *
+ * <p>Select it instead of {@link ParallelRunner} in testng.xml, see {@code testng-virtual.xml}. Every scenario
+ * still appears in the Cucumber reports; TestNG reports the run as one test that fails if any scenario failed.</p>
+ */
+@CucumberOptions(
+        features = "src/test/resources/features",
+        glue = "com.fluxion.steps",
+        plugin = {"pretty", "html:target/cucumber-reports.html", "json:" + ParallelRunner.CUCUMBER_JSON},
+        monochrome = true
+)
+public class VirtualThreadRunner {
+    private static final Logger logger = LogManager.getLogger(VirtualThreadRunner.class);
+
+    private TestNGCucumberRunner testNGCucumberRunner;
+
+    @BeforeClass(alwaysRun = true)
+    public void setUpClass(ITestContext context) {
+        FeatureValidator.gate(getClass());
+        // Read the previous durations before the json plugin truncates the report
+        ParallelRunner.previousTimings();
+        testNGCucumberRunner = new TestNGCucumberRunner(this.getClass(), context.getCurrentXmlTest()::getParameter);
+    }
+
+    @Test(groups = "cucumber", description = "Runs Cucumber Scenarios on virtual threads")
+    public void runScenarios() throws InterruptedException {
+        Object[][] scenarios = ParallelRunner.plan(testNGCucumberRunner.provideScenarios());
+        int sessions = getSessionLimit();
+        Queue<PickleWrapper> pending = new ConcurrentLinkedQueue<>();
+        for (Object[] row : scenarios) {
+            pending.add((PickleWrapper) row[0]);
+        }
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        AtomicInteger skipped = new AtomicInteger();
+        AtomicInteger running = new AtomicInteger();
+
+        ExecutorService executor = newExecutor(sessions);
+        try {
+            for (int i = 0; i < Math.min(sessions, scenarios.length); i++) {
+                executor.execute(() -> {
+                    PickleWrapper pickle;
+                    while ((pickle = pending.poll()) != null) {
+                        running.incrementAndGet();
+                        try {
+                            testNGCucumberRunner.runScenario(pickle.getPickle());
+                        } catch (SkipException e) {
+                            skipped.incrementAndGet();
+                        } catch (Throwable t) {
+                            failures.add(new AssertionError(pickle.getPickle().getName() + " ("
+                                    + pickle.getPickle().getUri() + ":" + pickle.getPickle().getLine() + ")", t));
+                        } finally {
+                            running.decrementAndGet();
+                        }
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                logger.info("Waiting for {} running and {} queued scenario(s)", running.get(), pending.size());
+            }
+        }
+
+        logger.info("Ran {} scenario(s) with up to {} browser session(s): {} failed, {} skipped",
+                scenarios.length, sessions, failures.size(), skipped.get());
+        if (!failures.isEmpty()) {
+            List<String> names = new ArrayList<>();
+            failures.forEach(failure -> names.add(failure.getMessage()));
+            AssertionError error = new AssertionError(failures.size() + " scenario(s) failed: " + String.join(", ", names));
+            failures.forEach(error::addSuppressed);
+            throw error;
+        }
+    }
+
+    /**
+     * Finishes the Cucumber run, which writes the JSON report, then records this run's durations.
+     */
+    @AfterClass(alwaysRun = true)
+    public void tearDownClass() {
+        if (testNGCucumberRunner != null) {
+            testNGCucumberRunner.finish();
+            ParallelRunner.recordTimings();
+        }
+    }
+
+    /**
+     * @return The number of scenarios that may run at once: {@code parallel.sessions}, else
+     * {@code driverPool.maxSize}.
+     */
+    public static int getSessionLimit() {
+        FluxionConfig config = FluxionConfig.get();
+        return config.isSet("parallel.sessions") ? config.getInt("parallel.sessions") : config.getInt("driverPool.maxSize");
+    }
+
+    // Only as many tasks as sessions are submitted, each a worker that keeps its thread for the whole run
+    private static ExecutorService newExecutor(int sessions) {
+        try {
+            // Looked up reflectively so the framework still builds and runs on Java 17
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            logger.info("Running scenarios on virtual threads");
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            logger.warn("Virtual threads need Java 21 or later (running on {}); using {} platform thread(s)",
+                    Runtime.version(), sessions);
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newFixedThreadPool(sessions, runnable -> {
+                Thread thread = new Thread(runnable, "fluxion-scenario-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -5,27 +5,42 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.function.Consumer;
 
 public abstract class AbstractReportGenerator implements ReportGenerator {
 
-    private final JsonNode reportData;
+    private final String jsonFilePath;
 
     public AbstractReportGenerator(String jsonFilePath) {
-        this.reportData = parseJson(jsonFilePath);
+        File jsonFile = new File(jsonFilePath);
+        if (!jsonFile.exists() || !jsonFile.isFile()) {
+            throw new RuntimeException("The JSON file does not exist or is not a valid file: " + jsonFilePath);
+        }
+        this.jsonFilePath = jsonFilePath;
     }
 
-    protected JsonNode getReportData() {
-        return this.reportData;
+    /**
+     * Streams the scenarios of the Cucumber JSON report without loading the whole document.
+     *
+     * @param consumer Receives each scenario in report order.
+     */
+    protected void forEachScenario(Consumer<ScenarioResult> consumer) {
+        try {
+            new CucumberJsonReader().read(jsonFilePath, consumer);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to parse Cucumber JSON report: " + jsonFilePath, e);
+        }
     }
 
-    private JsonNode parseJson(String jsonFilePath) {
+    /**
+     * Loads the whole Cucumber JSON report as a tree. The tree holds every embedding in memory, so prefer
+     * {@link #forEachScenario(Consumer)} for large reports.
+     *
+     * @return The report as a JSON tree.
+     */
+    protected JsonNode getReportData() {
         try {
-            ObjectMapper objectMapper = new ObjectMapper();
-            File jsonFile = new File(jsonFilePath);
-            if (!jsonFile.exists() || !jsonFile.isFile()) {
-                throw new RuntimeException("The JSON file does not exist or is not a valid file: " + jsonFilePath);
-            }
-            return objectMapper.readTree(jsonFile);
+            return new ObjectMapper().readTree(new File(jsonFilePath));
         } catch (IOException e) {
             throw new RuntimeException("Failed to parse Cucumber JSON report: " + jsonFilePath, e);
         }
@@ -7,7 +7,10 @@ public class ChartGenerator {
     public String generateChartData(List<Map<String, String>> scenarios) {
         long passed = scenarios.stream().filter(s -> s.get("status").equalsIgnoreCase("passed")).count();
         long failed = scenarios.stream().filter(s -> s.get("status").equalsIgnoreCase("failed")).count();
+        return generateChartData(passed, failed);
+    }
 
+    public String generateChartData(long passed, long failed) {
         return "{type: 'pie', data: { labels: ['Passed', 'Failed'], datasets: [{ data: ["
                 + passed + "," + failed + "], backgroundColor: ['#28a745', '#dc3545'] }]}}";
     }
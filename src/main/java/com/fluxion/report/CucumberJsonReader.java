@@ -0,0 +1,210 @@
+package com.fluxion.report;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * CucumberJsonReader reads the scenarios of a Cucumber JSON report with Jackson's streaming parser.
+ *
+ * <p>Only the fields needed for reporting are kept (names, lines, statuses, durations, error messages).
+ * Embeddings, outputs, doc strings and data tables are skipped token by token without being materialised, so
+ * heap use depends on the size of one feature's scenario summaries and not on the size of the report.</p>
+ */
+public class CucumberJsonReader {
+    private static final Logger logger = LoggerFactory.getLogger(CucumberJsonReader.class);
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    /**
+     * Reads every scenario of a Cucumber JSON report into a list.
+     *
+     * @param cucumberJsonFilePath Path to the Cucumber JSON file.
+     * @return The scenarios in report order.
+     * @throws IOException if the file cannot be read or is not valid JSON.
+     */
+    public List<ScenarioResult> read(String cucumberJsonFilePath) throws IOException {
+        List<ScenarioResult> scenarios = new ArrayList<>();
+        read(cucumberJsonFilePath, scenarios::add);
+        return scenarios;
+    }
+
+    /**
+     * Streams the scenarios of a Cucumber JSON report. Scenarios are handed over feature by feature, once the
+     * feature's object has been read completely.
+     *
+     * @param cucumberJsonFilePath Path to the Cucumber JSON file.
+     * @param consumer             Receives each scenario in report order.
+     * @throws IOException if the file cannot be read or is not valid JSON.
+     */
+    public void read(String cucumberJsonFilePath, Consumer<ScenarioResult> consumer) throws IOException {
+        logger.debug("Reading Cucumber JSON file: {}", cucumberJsonFilePath);
+        try (JsonParser parser = jsonFactory.createParser(new File(cucumberJsonFilePath))) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return;
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                readFeature(parser, consumer);
+            }
+        }
+    }
+
+    static String determineStatus(List<ScenarioResult.StepResult> steps, boolean hooksPassed) {
+        if (steps.isEmpty()) {
+            return "unknown";
+        }
+        boolean allPassed = hooksPassed && steps.stream().allMatch(step -> "passed".equals(step.getStatus()));
+        return allPassed ? "passed" : "failed";
+    }
+
+    private void readFeature(JsonParser parser, Consumer<ScenarioResult> consumer) throws IOException {
+        String uri = "";
+        String featureName = "";
+        // Cucumber does not guarantee that "uri" and "name" precede "elements", so elements are kept until the
+        // feature object ends
+        List<Element> elements = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "uri" -> uri = parser.getValueAsString("");
+                case "name" -> featureName = parser.getValueAsString("");
+                case "elements" -> {
+                    if (value == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            elements.add(readElement(parser));
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+
+        List<ScenarioResult.StepResult> backgroundSteps = List.of();
+        long backgroundDuration = 0;
+        for (Element element : elements) {
+            if ("background".equals(element.type)) {
+                // The background entry precedes the scenario it ran for
+                backgroundSteps = element.steps;
+                backgroundDuration = element.duration;
+                continue;
+            }
+            List<ScenarioResult.StepResult> allSteps = new ArrayList<>(backgroundSteps);
+            allSteps.addAll(element.steps);
+            consumer.accept(new ScenarioResult(uri, featureName, element.name, element.line,
+                    determineStatus(allSteps, element.hooksPassed), backgroundDuration + element.duration, allSteps));
+            backgroundSteps = List.of();
+            backgroundDuration = 0;
+        }
+    }
+
+    private Element readElement(JsonParser parser) throws IOException {
+        Element element = new Element();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "type" -> element.type = parser.getValueAsString("");
+                case "name" -> element.name = parser.getValueAsString("");
+                case "line" -> element.line = parser.getValueAsInt(0);
+                case "before", "after" -> readHooks(parser, value, element);
+                case "steps" -> {
+                    if (value == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            element.steps.add(readStep(parser, element));
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        return element;
+    }
+
+    private ScenarioResult.StepResult readStep(JsonParser parser, Element element) throws IOException {
+        String keyword = "";
+        String name = "";
+        Result result = new Result();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "keyword" -> keyword = parser.getValueAsString("").trim();
+                case "name" -> name = parser.getValueAsString("");
+                case "result" -> result = readResult(parser, value);
+                case "before", "after" -> readHooks(parser, value, element);
+                // embeddings, output, match, rows, doc_string
+                default -> parser.skipChildren();
+            }
+        }
+        element.duration += result.duration;
+        return new ScenarioResult.StepResult(keyword, name, result.status, result.duration, result.errorMessage);
+    }
+
+    private void readHooks(JsonParser parser, JsonToken value, Element element) throws IOException {
+        if (value != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken hookValue = parser.nextToken();
+                if ("result".equals(field)) {
+                    Result result = readResult(parser, hookValue);
+                    element.duration += result.duration;
+                    if (!"passed".equals(result.status) && !"skipped".equals(result.status)) {
+                        element.hooksPassed = false;
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    private Result readResult(JsonParser parser, JsonToken value) throws IOException {
+        Result result = new Result();
+        if (value != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return result;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "status" -> result.status = parser.getValueAsString("unknown");
+                case "duration" -> result.duration = parser.getValueAsLong(0);
+                case "error_message" -> result.errorMessage = parser.getValueAsString();
+                default -> parser.skipChildren();
+            }
+        }
+        return result;
+    }
+
+    private static class Element {
+        private String type = "";
+        private String name = "";
+        private int line;
+        private long duration;
+        private boolean hooksPassed = true;
+        private final List<ScenarioResult.StepResult> steps = new ArrayList<>();
+    }
+
+    private static class Result {
+        private String status = "unknown";
+        private long duration;
+        private String errorMessage;
+    }
+}
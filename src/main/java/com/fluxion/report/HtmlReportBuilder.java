@@ -1,8 +1,22 @@
 package com.fluxion.report;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
+/**
+ * HtmlReportBuilder renders the HTML report section by section onto a Writer, so a report can be produced
+ * while scenarios are still being read: {@link #writeHeader(Writer)}, one {@link #writeScenario(Writer, ScenarioResult)}
+ * per scenario, then {@link #writeFooter(Writer, String)} with the chart once the totals are known.
+ */
 public class HtmlReportBuilder {
     private final String reportName;
     private final String suiteName;
@@ -13,20 +27,151 @@ public class HtmlReportBuilder {
     }
 
     public String buildHtml(List<Map<String, String>> scenarios, String chartData) {
-        StringBuilder htmlBuilder = new StringBuilder();
-
-        htmlBuilder.append("<!DOCTYPE html><html><head>")
-                .append("<title>").append(reportName).append("</title>")
-                .append("<script src='https://cdn.jsdelivr.net/npm/chart.js'></script>")
-                .append("</head><body>")
-                .append("<h1>").append(suiteName).append("</h1>")
-                .append("<canvas id='statusChart' width='400' height='400'></canvas>")
-                .append("<script>")
-                .append("var ctx = document.getElementById('statusChart').getContext('2d');")
-                .append("new Chart(ctx, ").append(chartData).append(");")
-                .append("</script>")
-                .append("</body></html>");
-
-        return htmlBuilder.toString();
+        StringWriter html = new StringWriter();
+        try {
+            writeHeader(html);
+            for (Map<String, String> scenario : scenarios) {
+                writeRow(html, scenario.get("name"), scenario.get("status"), "", null);
+            }
+            writeFooter(html, chartData);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return html.toString();
+    }
+
+    /**
+     * Writes everything up to and including the opening of the scenario table.
+     *
+     * @param out The report writer.
+     * @throws IOException if writing fails.
+     */
+    public void writeHeader(Writer out) throws IOException {
+        out.write("<!DOCTYPE html><html><head><meta charset='UTF-8'>");
+        out.write("<title>" + escape(reportName) + "</title>");
+        out.write("<script src='https://cdn.jsdelivr.net/npm/chart.js'></script>");
+        out.write("<style>table{border-collapse:collapse}td,th{border:1px solid #ddd;padding:4px 8px;text-align:left}"
+                + ".passed{color:#28a745}.failed{color:#dc3545}.steps{margin:4px 0 4px 16px}</style>");
+        out.write("</head><body>");
+        out.write("<h1>" + escape(suiteName) + "</h1>");
+        out.write("<canvas id='statusChart' width='400' height='400'></canvas>");
+        out.write("<table><thead><tr><th>Scenario</th><th>Status</th><th>Duration</th><th>Steps</th></tr></thead><tbody>");
+    }
+
+    /**
+     * Writes the detail row of one scenario, including its steps.
+     *
+     * @param out      The report writer.
+     * @param scenario The scenario.
+     * @throws IOException if writing fails.
+     */
+    public void writeScenario(Writer out, ScenarioResult scenario) throws IOException {
+        writeRow(out, scenario.getName(), scenario.getStatus(), formatDuration(scenario.getDurationNanos()), scenario.getSteps());
+    }
+
+    /**
+     * Closes the scenario table and writes the status chart and closing tags.
+     *
+     * @param out       The report writer.
+     * @param chartData Chart.js configuration from {@link ChartGenerator}.
+     * @throws IOException if writing fails.
+     */
+    public void writeFooter(Writer out, String chartData) throws IOException {
+        writeFooter(out, chartData, null);
+    }
+
+    /**
+     * Closes the scenario table, adds a latency summary from {@code metrics.json} and writes the status chart
+     * and closing tags.
+     *
+     * @param out       The report writer.
+     * @param chartData Chart.js configuration from {@link ChartGenerator}.
+     * @param metrics   The parsed metrics file, or null to leave the summary out.
+     * @throws IOException if writing fails.
+     */
+    public void writeFooter(Writer out, String chartData, JsonNode metrics) throws IOException {
+        out.write("</tbody></table>");
+        if (metrics != null) {
+            writeMetrics(out, metrics);
+        }
+        out.write("<script>");
+        out.write("var ctx = document.getElementById('statusChart').getContext('2d');");
+        out.write("new Chart(ctx, " + chartData + ");");
+        out.write("</script>");
+        out.write("</body></html>");
+    }
+
+    private void writeMetrics(Writer out, JsonNode metrics) throws IOException {
+        out.write("<h2>Latency</h2><table><thead><tr><th>Action</th><th>Count</th><th>Total</th><th>p50</th>"
+                + "<th>p90</th><th>p99</th><th>Max</th></tr></thead><tbody>");
+        for (JsonNode action : metrics.path("actions")) {
+            writeMetricRow(out, action.path("action").asText(), action);
+        }
+        out.write("</tbody></table>");
+
+        // The slowest locators by p90 are where tuning pays off
+        List<JsonNode> locators = new ArrayList<>();
+        metrics.path("locators").forEach(locators::add);
+        locators.sort(Comparator.comparingDouble((JsonNode node) -> node.path("p90Millis").asDouble()).reversed());
+        if (!locators.isEmpty()) {
+            out.write("<h3>Slowest locators</h3><table><thead><tr><th>Action / locator</th><th>Count</th><th>Total</th>"
+                    + "<th>p50</th><th>p90</th><th>p99</th><th>Max</th></tr></thead><tbody>");
+            for (JsonNode locator : locators.subList(0, Math.min(10, locators.size()))) {
+                writeMetricRow(out, locator.path("action").asText() + " " + locator.path("locator").asText(), locator);
+            }
+            out.write("</tbody></table>");
+        }
+    }
+
+    private void writeMetricRow(Writer out, String label, JsonNode node) throws IOException {
+        out.write("<tr><td>" + escape(label) + "</td><td>" + node.path("count").asLong() + "</td>");
+        for (String field : new String[]{"totalMillis", "p50Millis", "p90Millis", "p99Millis", "maxMillis"}) {
+            out.write("<td>" + String.format(Locale.ROOT, "%.1f ms", node.path(field).asDouble()) + "</td>");
+        }
+        out.write("</tr>");
+    }
+
+    private void writeRow(Writer out, String name, String status, String duration,
+                          List<ScenarioResult.StepResult> steps) throws IOException {
+        String statusClass = "passed".equalsIgnoreCase(status) ? "passed" : "failed";
+        out.write("<tr><td>" + escape(name) + "</td><td class='" + statusClass + "'>" + escape(status) + "</td><td>"
+                + escape(duration) + "</td><td>");
+        if (steps != null && !steps.isEmpty()) {
+            out.write("<details><summary>" + steps.size() + " step(s)</summary><ol class='steps'>");
+            for (ScenarioResult.StepResult step : steps) {
+                out.write("<li class='" + ("passed".equals(step.getStatus()) ? "passed" : "failed") + "'>"
+                        + escape(step.getKeyword() + " " + step.getName()) + " &ndash; " + escape(step.getStatus())
+                        + " (" + formatDuration(step.getDurationNanos()) + ")");
+                if (step.getErrorMessage() != null) {
+                    out.write("<pre>" + escape(step.getErrorMessage()) + "</pre>");
+                }
+                out.write("</li>");
+            }
+            out.write("</ol></details>");
+        }
+        out.write("</td></tr>");
+    }
+
+    private String formatDuration(long durationInNanoSeconds) {
+        return String.format(Locale.ROOT, "%.2fs", durationInNanoSeconds / 1_000_000_000.0);
+    }
+
+    private static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '&' -> escaped.append("&amp;");
+                case '"' -> escaped.append("&quot;");
+                case '\'' -> escaped.append("&#39;");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
     }
 }
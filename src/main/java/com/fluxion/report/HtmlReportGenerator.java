@@ -1,12 +1,17 @@
 package com.fluxion.report;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fluxion.core.FluxionConfig;
+import com.fluxion.core.LatencyMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
@@ -22,43 +27,44 @@ public class HtmlReportGenerator {
     private final ReportWriter writer;
 
     public HtmlReportGenerator() {
-        // Hard-coded path to the config file
-        String configFilePath = "src/test/resources/config/config.yml";  // Replace with your actual path
-
-        this.config = new ReportConfig(configFilePath); // Load from YAML
+        this.config = new ReportConfig(FluxionConfig.get()); // Shares the framework's configuration snapshot
         this.chartGenerator = new ChartGenerator();
         this.builder = new HtmlReportBuilder(config.getHtmlReport().getSuiteName(), config.getHtmlReport().getSuiteName());
         this.writer = new ReportWriter();
     }
 
+    /**
+     * Streams a Cucumber JSON report into the HTML report: each scenario is rendered as soon as it is read,
+     * so memory use does not depend on the number of scenarios.
+     *
+     * @param cucumberJsonFilePath Path to the Cucumber JSON file.
+     */
     public void generateReportFromCucumberJson(String cucumberJsonFilePath) {
-        try {
-            logger.info("Generating report from Cucumber JSON: {}", cucumberJsonFilePath);
-            List<Map<String, Object>> features = parseCucumberJson(cucumberJsonFilePath);
-            List<Map<String, String>> scenarios = extractScenarioDetails(features);
-            String outputFilePath = config.getHtmlReport().getOutputFilePath();
-            generateReport(scenarios);
-        } catch (IOException e) {
+        String outputFilePath = newOutputFilePath();
+        logger.info("Generating report {} from Cucumber JSON: {}", outputFilePath, cucumberJsonFilePath);
+        long[] counts = new long[2];
+        long started = System.nanoTime();
+        try (Writer out = writer.openReport(outputFilePath)) {
+            builder.writeHeader(out);
+            new CucumberJsonReader().read(cucumberJsonFilePath, scenario -> {
+                try {
+                    builder.writeScenario(out, scenario);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                counts["passed".equalsIgnoreCase(scenario.getStatus()) ? 0 : 1]++;
+            });
+            builder.writeFooter(out, chartGenerator.generateChartData(counts[0], counts[1]), readMetrics());
+            logger.info("Report written with {} passed and {} failed scenario(s) in {} ms", counts[0], counts[1],
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException | UncheckedIOException e) {
             logger.error("Failed to generate report from Cucumber JSON file: {}", cucumberJsonFilePath, e);
             throw new RuntimeException("Failed to generate report", e);
         }
     }
 
-    private List<Map<String, Object>> parseCucumberJson(String cucumberJsonFilePath) throws IOException {
-        logger.debug("Parsing Cucumber JSON file: {}", cucumberJsonFilePath);
-        ObjectMapper mapper = new ObjectMapper();
-        List<Map<String, Object>> features = mapper.readValue(new File(cucumberJsonFilePath), new TypeReference<List<Map<String, Object>>>() {});
-        logger.debug("Successfully parsed Cucumber JSON file: {}", cucumberJsonFilePath);
-        return features;
-    }
-
     public void generateReport(List<Map<String, String>> scenarios) {
-        // Get the output directory from config
-        String outputDirectory = config.getHtmlReport().getOutputFilePath();
-
-        // Generate the report file name with a timestamp
-        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
-        String outputFilePath = outputDirectory + "test_report_" + timestamp + ".html";
+        String outputFilePath = newOutputFilePath();
 
         // Generate the chart data and HTML content
         String chartData = chartGenerator.generateChartData(scenarios);
@@ -68,31 +74,33 @@ public class HtmlReportGenerator {
         writer.writeReport(outputFilePath, htmlContent);  // This will now handle directory creation
     }
 
-    private List<Map<String, String>> extractScenarioDetails(List<Map<String, Object>> features) {
-        logger.debug("Extracting scenario details from features");
-        return features.stream()
-                .flatMap(feature -> {
-                    List<Map<String, Object>> elements = (List<Map<String, Object>>) feature.get("elements");
-                    return elements.stream().map(element -> {
-                        String name = (String) element.get("name");
-                        List<Map<String, Object>> steps = (List<Map<String, Object>>) element.get("steps");
-                        String status = determineScenarioStatus(steps);
-                        return Map.of("name", name, "status", status);
-                    });
-                })
-                .toList();
+    /**
+     * Reads the latency metrics of the run, {@code -Dfluxion.metricsFile} or {@code metrics.json} in
+     * {@code metrics.dir}, where {@link LatencyMetrics#export()} writes it.
+     *
+     * @return The parsed metrics, or null if there are none.
+     */
+    private JsonNode readMetrics() {
+        String override = System.getProperty("fluxion.metricsFile");
+        Path metricsFile = override != null ? Path.of(override)
+                : FluxionConfig.get().getPath("metrics.dir").resolve(LatencyMetrics.JSON_FILE);
+        if (!Files.isRegularFile(metricsFile)) {
+            return null;
+        }
+        try {
+            return new ObjectMapper().readTree(metricsFile.toFile());
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable metrics file {}: {}", metricsFile, e.getMessage());
+            return null;
+        }
     }
 
-    private String determineScenarioStatus(List<Map<String, Object>> steps) {
-        logger.debug("Determining scenario status");
-        if (steps == null || steps.isEmpty()) {
-            return "unknown";
-        }
-        return steps.stream()
-                .map(step -> {
-                    Map<String, Object> result = (Map<String, Object>) step.get("result");
-                    return result != null ? (String) result.get("status") : "unknown";
-                })
-                .anyMatch(status -> !"passed".equals(status)) ? "failed" : "passed";
+    private String newOutputFilePath() {
+        // Get the output directory from config
+        String outputDirectory = config.getHtmlReport().getOutputFilePath();
+
+        // Generate the report file name with a timestamp
+        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+        return outputDirectory + "test_report_" + timestamp + ".html";
     }
 }
@@ -1,10 +1,8 @@
 package com.fluxion.report;
 
-import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fluxion.core.FluxionConfig;
 
-import java.io.File;
-import java.io.IOException;
+import java.nio.file.Path;
 
 public class ReportConfig {
     private String browser;
@@ -16,20 +14,32 @@ public class ReportConfig {
     // No-argument constructor
     public ReportConfig() {}
 
-    // Constructor to load from YAML file
+    // Constructor to load from YAML file; the framework's own config.yml is not read again
     public ReportConfig(String configFilePath) {
+        this(snapshotFor(configFilePath));
+    }
+
+    // Constructor over an already loaded configuration
+    public ReportConfig(FluxionConfig config) {
+        this.browser = config.getString("browser");
+        this.baseUrl = config.getString("baseUrl");
+        this.timeout = (int) config.getDuration("timeout").toSeconds();
+        this.screenshot = new Screenshot();
+        this.screenshot.setDir(config.getString("screenshot.dir"));
+        this.htmlReport = new HtmlReport();
+        this.htmlReport.setSuiteName(config.getString("htmlReport.suiteName"));
+        this.htmlReport.setOutputFilePath(config.getString("htmlReport.outputFilePath"));
+    }
+
+    private static FluxionConfig snapshotFor(String configFilePath) {
+        FluxionConfig current = FluxionConfig.get();
+        Path file = Path.of(configFilePath).toAbsolutePath().normalize();
+        if (current.getSource() != null && current.getSource().toAbsolutePath().normalize().equals(file)) {
+            return current;
+        }
         try {
-            // Create YAML ObjectMapper
-            ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
-
-            // Read YAML file and deserialize to ReportConfig
-            ReportConfig config = mapper.readValue(new File(configFilePath), ReportConfig.class);
-            this.browser = config.browser;
-            this.baseUrl = config.baseUrl;
-            this.timeout = config.timeout;
-            this.screenshot = config.screenshot;
-            this.htmlReport = config.htmlReport;
-        } catch (IOException e) {
+            return FluxionConfig.load(file, System.getenv(), System.getProperties());
+        } catch (IllegalStateException e) {
             throw new RuntimeException("Failed to read config file", e);
         }
     }
@@ -1,8 +1,10 @@
 package com.fluxion.report;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
 public class ReportWriter {
 
@@ -13,6 +15,20 @@ public class ReportWriter {
      * @param htmlContent    The HTML content to be written to the file.
      */
     public void writeReport(String outputFilePath, String htmlContent) {
+        try (Writer writer = openReport(outputFilePath)) {
+            writer.write(htmlContent);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write the report to " + outputFilePath + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Opens a buffered UTF-8 writer for a report, creating missing directories.
+     *
+     * @param outputFilePath Path where the HTML report should be saved.
+     * @return The writer; the caller closes it.
+     */
+    public Writer openReport(String outputFilePath) {
         File reportFile = new File(outputFilePath);
 
         // Ensure the directory exists; if not, create it
@@ -24,11 +40,10 @@ public class ReportWriter {
             }
         }
 
-        // Write the content to the file
-        try (FileWriter writer = new FileWriter(reportFile)) {
-            writer.write(htmlContent);
+        try {
+            return Files.newBufferedWriter(reportFile.toPath(), StandardCharsets.UTF_8);
         } catch (IOException e) {
-            throw new RuntimeException("Failed to write the report to " + outputFilePath + ": " + e.getMessage(), e);
+            throw new RuntimeException("Failed to open the report " + outputFilePath + ": " + e.getMessage(), e);
         }
     }
 }
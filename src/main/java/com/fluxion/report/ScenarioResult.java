@@ -0,0 +1,95 @@
+package com.fluxion.report;
+
+import java.util.List;
+
+/**
+ * ScenarioResult is one scenario read from a Cucumber JSON report. Background steps and hook
+ * durations are folded into the scenario they ran for.
+ */
+public class ScenarioResult {
+    private final String featureUri;
+    private final String featureName;
+    private final String name;
+    private final int line;
+    private final String status;
+    private final long durationNanos;
+    private final List<StepResult> steps;
+
+    public ScenarioResult(String featureUri, String featureName, String name, int line, String status,
+                          long durationNanos, List<StepResult> steps) {
+        this.featureUri = featureUri;
+        this.featureName = featureName;
+        this.name = name;
+        this.line = line;
+        this.status = status;
+        this.durationNanos = durationNanos;
+        this.steps = List.copyOf(steps);
+    }
+
+    public String getFeatureUri() {
+        return featureUri;
+    }
+
+    public String getFeatureName() {
+        return featureName;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public List<StepResult> getSteps() {
+        return steps;
+    }
+
+    /**
+     * StepResult is the outcome of one step.
+     */
+    public static class StepResult {
+        private final String keyword;
+        private final String name;
+        private final String status;
+        private final long durationNanos;
+        private final String errorMessage;
+
+        public StepResult(String keyword, String name, String status, long durationNanos, String errorMessage) {
+            this.keyword = keyword;
+            this.name = name;
+            this.status = status;
+            this.durationNanos = durationNanos;
+            this.errorMessage = errorMessage;
+        }
+
+        public String getKeyword() {
+            return keyword;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        public String getErrorMessage() {
+            return errorMessage;
+        }
+    }
+}
@@ -0,0 +1,509 @@
+package com.fluxion.runner;
+
+import com.fluxion.core.FluxionConfig;
+import com.fluxion.core.LocatorDiff;
+import com.fluxion.core.Locator;
+import com.fluxion.core.LocatorFile;
+import com.fluxion.core.LocatorIndex;
+import com.fluxion.core.LocatorManager;
+import com.fluxion.core.LocatorSyntax;
+import com.fluxion.core.ScenarioTimings;
+import com.fluxion.steps.FluxionStepDefinitions;
+import io.cucumber.cucumberexpressions.Argument;
+import io.cucumber.cucumberexpressions.Expression;
+import io.cucumber.cucumberexpressions.ExpressionFactory;
+import io.cucumber.cucumberexpressions.ParameterTypeRegistry;
+import io.cucumber.gherkin.GherkinParser;
+import io.cucumber.java.en.And;
+import io.cucumber.java.en.But;
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import io.cucumber.messages.types.Background;
+import io.cucumber.messages.types.Envelope;
+import io.cucumber.messages.types.FeatureChild;
+import io.cucumber.messages.types.GherkinDocument;
+import io.cucumber.messages.types.Pickle;
+import io.cucumber.messages.types.PickleStep;
+import io.cucumber.messages.types.PickleTableRow;
+import io.cucumber.messages.types.RuleChild;
+import io.cucumber.messages.types.Scenario;
+import io.cucumber.messages.types.Step;
+import io.cucumber.messages.types.TableRow;
+import io.cucumber.testng.CucumberOptions;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.SkipException;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * FeatureValidator checks feature files against the locators and the configuration without starting a browser.
+ *
+ * <p>Every scenario is expanded the way Cucumber runs it (Background and Examples included) and its steps are
+ * matched against the framework's step definitions. The current page is tracked through {@code I am on the
+ * "..." screen} and {@code I navigate to the "..."}, and every field a step uses must exist on that page. URL
+ * keys must exist in config.yml, and every locator in the locator files must be well formed
+ * ({@link LocatorSyntax}). Steps of other step classes are counted but not checked.</p>
+ *
+ * <p>Run it on its own with {@code java com.fluxion.runner.FeatureValidator [feature dirs...]}, which exits
+ * with 1 on errors, or let the runners run it first: {@code validateFeatures: true} (or
+ * {@code -Dfluxion.validateFeatures=true}) stops the run before any browser starts if a feature is broken, and
+ * {@code -Dfluxion.dryRun=true} validates and then skips the run.</p>
+ */
+public final class FeatureValidator {
+    private static final Logger logger = LogManager.getLogger(FeatureValidator.class);
+    public static final String DEFAULT_FEATURES = "src/test/resources/features";
+    // Problems listed in the exception that stops a gated run; all of them are logged
+    private static final int MAX_REPORTED = 20;
+
+    private static final GherkinParser PARSER = GherkinParser.builder()
+            .includeSource(false)
+            .includeGherkinDocument(true)
+            .includePickles(true)
+            .build();
+    private static final List<StepRule> RULES = stepRules();
+
+    private final LocatorIndex index;
+    private final FluxionConfig config;
+    private final List<Problem> problems = new ArrayList<>();
+    // Locator syntax is checked once per locator, whichever scenario uses it
+    private final Map<Locator, Optional<String>> syntax = new ConcurrentHashMap<>();
+    private final LongAdder scenarios = new LongAdder();
+    private final LongAdder steps = new LongAdder();
+    private final LongAdder unchecked = new LongAdder();
+    private final Map<String, Set<String>> references = new ConcurrentHashMap<>();
+
+    /**
+     * @param index  The locators to check against.
+     * @param config The configuration, for URL keys.
+     */
+    public FeatureValidator(LocatorIndex index, FluxionConfig config) {
+        this.index = index;
+        this.config = config;
+    }
+
+    public enum Severity { ERROR, WARNING }
+
+    /**
+     * One finding.
+     *
+     * @param severity ERROR if the scenario would fail at runtime.
+     * @param location File and line, e.g. {@code src/test/resources/features/login.feature:12}.
+     * @param message  What is wrong.
+     */
+    public record Problem(Severity severity, String location, String message) {
+        @Override
+        public String toString() {
+            return location + ": " + severity.name().toLowerCase(Locale.ROOT) + ": " + message;
+        }
+    }
+
+    /**
+     * The outcome of a validation.
+     *
+     * @param problems   Every finding, by location.
+     * @param files      Feature files read.
+     * @param scenarios  Scenarios checked, with every Examples row counted.
+     * @param steps      Steps checked.
+     * @param unchecked  Steps that belong to other step classes.
+     * @param millis     How long the validation took.
+     * @param references Scenario key ({@link ScenarioTimings#key}) to the pages and fields its steps use, as
+     *                   {@link LocatorDiff#reference} strings.
+     */
+    public record Result(List<Problem> problems, int files, long scenarios, long steps, long unchecked, long millis,
+                         Map<String, Set<String>> references) {
+
+        public long errors() {
+            return problems.stream().filter(problem -> problem.severity() == Severity.ERROR).count();
+        }
+
+        public String summary() {
+            return String.format("Validated %d scenario(s), %d step(s) in %d feature file(s) in %d ms: %d error(s), "
+                    + "%d warning(s), %d step(s) of other step classes not checked",
+                    scenarios, steps, files, millis, errors(), problems.size() - errors(), unchecked);
+        }
+    }
+
+    // PAGE looks the page up without spaces, like "I am on the {string}"; NAVIGATE looks it up as written
+    private enum Role { PAGE, NAVIGATE, FIELD, FORM, URL_KEY, NONE }
+
+    // A step definition of FluxionStepDefinitions and what its arguments mean
+    private record StepRule(Expression expression, Role role, int argument) {
+    }
+
+    /**
+     * Validates features with the configured locators and configuration.
+     *
+     * @param args Feature files or directories; {@value #DEFAULT_FEATURES} if none are given.
+     */
+    public static void main(String[] args) {
+        List<Path> roots = args.length > 0 ? Stream.of(args).map(Path::of).toList() : List.of(Path.of(DEFAULT_FEATURES));
+        Result result = validate(roots);
+        System.exit(result.errors() > 0 ? 1 : 0);
+    }
+
+    /**
+     * Validates the features of a runner before it starts, if {@code validateFeatures} or
+     * {@code -Dfluxion.dryRun} is set.
+     *
+     * @param runner A class annotated with {@link CucumberOptions}.
+     * @throws IllegalStateException if a feature has errors.
+     * @throws SkipException         after a successful dry run, so no scenario runs.
+     */
+    public static void gate(Class<?> runner) {
+        boolean dryRun = Boolean.getBoolean("fluxion.dryRun");
+        boolean enabled = FluxionConfig.get().getBoolean("validateFeatures");
+        if (!dryRun && !enabled) {
+            return;
+        }
+        CucumberOptions options = runner.getAnnotation(CucumberOptions.class);
+        List<Path> roots = options != null && options.features().length > 0
+                ? Stream.of(options.features()).map(feature -> Path.of(feature.replaceFirst("^file:", ""))).toList()
+                : List.of(Path.of(DEFAULT_FEATURES));
+        Result result = validate(roots);
+        if (result.errors() > 0) {
+            StringBuilder message = new StringBuilder(result.summary());
+            result.problems().stream().filter(problem -> problem.severity() == Severity.ERROR).limit(MAX_REPORTED)
+                    .forEach(problem -> message.append("\n  ").append(problem));
+            throw new IllegalStateException(message.toString());
+        }
+        if (dryRun) {
+            throw new SkipException("Dry run: " + result.summary());
+        }
+    }
+
+    /**
+     * Validates feature files against {@link LocatorManager}'s locators and logs the result.
+     *
+     * @param roots Feature files or directories.
+     * @return The result.
+     */
+    public static Result validate(List<Path> roots) {
+        Result result = new FeatureValidator(LocatorManager.getIndex(), FluxionConfig.get()).check(roots);
+        result.problems().forEach(problem -> {
+            if (problem.severity() == Severity.ERROR) {
+                logger.error("{}", problem);
+            } else {
+                logger.warn("{}", problem);
+            }
+        });
+        logger.info(result.summary());
+        return result;
+    }
+
+    /**
+     * Checks every locator and every feature file under the given roots.
+     *
+     * @param roots Feature files or directories.
+     * @return The result.
+     */
+    public Result check(List<Path> roots) {
+        long started = System.nanoTime();
+        List<Path> files = new ArrayList<>();
+        for (Path root : roots) {
+            if (Files.isDirectory(root)) {
+                try (Stream<Path> walk = Files.walk(root)) {
+                    walk.filter(path -> path.toString().endsWith(".feature")).sorted().forEach(files::add);
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to list feature files in " + root, e);
+                }
+            } else if (Files.isRegularFile(root)) {
+                files.add(root);
+            } else {
+                problems.add(new Problem(Severity.ERROR, root.toString(), "no such feature file or directory"));
+            }
+        }
+
+        checkLocators();
+        List<List<Problem>> perFile = files.parallelStream().map(this::checkFile).toList();
+        perFile.forEach(problems::addAll);
+        problems.sort(Comparator.comparing(Problem::location, FeatureValidator::compareLocations));
+        return new Result(List.copyOf(problems), files.size(), scenarios.sum(), steps.sum(), unchecked.sum(),
+                (System.nanoTime() - started) / 1_000_000, Map.copyOf(references));
+    }
+
+    private void checkLocators() {
+        for (LocatorFile file : index.getFiles().values()) {
+            for (String page : file.getPageNames()) {
+                Map<String, Locator> fields;
+                try {
+                    fields = file.getPage(page);
+                } catch (IllegalArgumentException e) {
+                    problems.add(new Problem(Severity.ERROR, file.getPath().toString(), e.getMessage()));
+                    continue;
+                }
+                if (fields == null) {
+                    continue;
+                }
+                fields.values().forEach(locator -> syntaxOf(locator).ifPresent(problem ->
+                        problems.add(new Problem(Severity.ERROR, locator.getSource(), problem + " in '" + locator + "'"))));
+            }
+        }
+    }
+
+    private Optional<String> syntaxOf(Locator locator) {
+        return syntax.computeIfAbsent(locator, key -> Optional.ofNullable(LocatorSyntax.check(key)));
+    }
+
+    private List<Problem> checkFile(Path file) {
+        List<Problem> found = new ArrayList<>();
+        List<Envelope> envelopes;
+        try {
+            envelopes = PARSER.parse(file).toList();
+        } catch (IOException e) {
+            found.add(new Problem(Severity.ERROR, file.toString(), "cannot be read: " + e.getMessage()));
+            return found;
+        }
+        Map<String, Long> lines = new HashMap<>();
+        for (Envelope envelope : envelopes) {
+            envelope.getParseError().ifPresent(error -> found.add(new Problem(Severity.ERROR,
+                    file + ":" + error.getSource().getLocation().map(location -> location.getLine()).orElse(0L),
+                    error.getMessage())));
+            envelope.getGherkinDocument().ifPresent(document -> collectLines(document, lines));
+        }
+        for (Envelope envelope : envelopes) {
+            envelope.getPickle().ifPresent(pickle -> checkScenario(file, pickle, lines, found));
+        }
+        // A broken Background step is reported once, not once per scenario
+        return found.stream().distinct().toList();
+    }
+
+    private void checkScenario(Path file, Pickle pickle, Map<String, Long> lines, List<Problem> found) {
+        scenarios.increment();
+        String pageName = null;
+        LocatorIndex.Page page = null;
+        Set<String> used = new TreeSet<>();
+        for (PickleStep step : pickle.getSteps()) {
+            steps.increment();
+            String location = file + ":" + lines.getOrDefault(step.getAstNodeIds().get(0), 0L);
+            StepRule rule = null;
+            List<Argument<?>> arguments = null;
+            for (StepRule candidate : RULES) {
+                arguments = candidate.expression().match(step.getText());
+                if (arguments != null) {
+                    rule = candidate;
+                    break;
+                }
+            }
+            if (rule == null) {
+                unchecked.increment();
+                continue;
+            }
+            switch (rule.role()) {
+                case PAGE, NAVIGATE -> {
+                    pageName = (String) arguments.get(rule.argument()).getValue();
+                    page = resolvePage(rule.role() == Role.PAGE ? pageName.replace(" ", "") : pageName, pageName,
+                            location, found);
+                    used.add(LocatorDiff.reference(pageName, null));
+                }
+                case FIELD -> {
+                    String field = (String) arguments.get(rule.argument()).getValue();
+                    checkField(pageName, page, field, location, pickle, found);
+                    if (pageName != null) {
+                        used.add(LocatorDiff.reference(pageName, field));
+                    }
+                }
+                case FORM -> {
+                    String current = pageName;
+                    LocatorIndex.Page currentPage = page;
+                    step.getArgument().flatMap(argument -> argument.getDataTable()).ifPresent(table -> {
+                        for (PickleTableRow row : table.getRows()) {
+                            if (!row.getCells().isEmpty() && !row.getCells().get(0).getValue().isBlank()) {
+                                checkField(current, currentPage, row.getCells().get(0).getValue(), location, pickle, found);
+                                if (current != null) {
+                                    used.add(LocatorDiff.reference(current, row.getCells().get(0).getValue()));
+                                }
+                            }
+                        }
+                    });
+                }
+                case URL_KEY -> {
+                    String key = (String) arguments.get(rule.argument()).getValue();
+                    if (config.getString(key) == null) {
+                        found.add(new Problem(Severity.ERROR, location, "'" + key + "' is not set in config.yml"));
+                    }
+                }
+                case NONE -> {
+                }
+            }
+        }
+        // The scenario's line, or its Examples row's, as Cucumber reports it
+        List<String> ids = pickle.getAstNodeIds();
+        references.put(ScenarioTimings.key(file.toString(), lines.getOrDefault(ids.get(ids.size() - 1), 0L).intValue()),
+                Set.copyOf(used));
+    }
+
+    // Resolved the way the step definition does, so the validator agrees with the run
+    private LocatorIndex.Page resolvePage(String lookup, String pageName, String location, List<Problem> found) {
+        try {
+            LocatorIndex.Page page = index.getPage(lookup);
+            if (page == null) {
+                found.add(new Problem(Severity.WARNING, location, "no locator file defines page '" + pageName + "'"));
+            } else {
+                page.getLocators();
+            }
+            return page;
+        } catch (IllegalArgumentException e) {
+            found.add(new Problem(Severity.ERROR, location, e.getMessage()));
+            return null;
+        }
+    }
+
+    private void checkField(String pageName, LocatorIndex.Page page, String field, String location, Pickle pickle,
+                            List<Problem> found) {
+        if (pageName == null) {
+            found.add(new Problem(Severity.ERROR, location, "'" + field + "' is used before any page is set in scenario '"
+                    + pickle.getName() + "'"));
+            return;
+        }
+        if (page == null) {
+            found.add(new Problem(Severity.ERROR, location, "'" + field + "' is used on page '" + pageName
+                    + "', which has no locators"));
+            return;
+        }
+        Locator locator = page.get(field);
+        if (locator == null) {
+            String suggestion = closest(LocatorIndex.normalize(field), page.getLocators().keySet());
+            found.add(new Problem(Severity.ERROR, location, "page '" + pageName + "' has no locator '" + field + "'"
+                    + (suggestion != null ? ", did you mean '" + suggestion + "'?" : "")));
+        }
+    }
+
+    private static void collectLines(GherkinDocument document, Map<String, Long> lines) {
+        document.getFeature().ifPresent(feature -> {
+            for (FeatureChild child : feature.getChildren()) {
+                child.getBackground().ifPresent(background -> collectLines(background, lines));
+                child.getScenario().ifPresent(scenario -> collectLines(scenario, lines));
+                child.getRule().ifPresent(rule -> {
+                    for (RuleChild ruleChild : rule.getChildren()) {
+                        ruleChild.getBackground().ifPresent(background -> collectLines(background, lines));
+                        ruleChild.getScenario().ifPresent(scenario -> collectLines(scenario, lines));
+                    }
+                });
+            }
+        });
+    }
+
+    private static void collectLines(Background background, Map<String, Long> lines) {
+        background.getSteps().forEach(step -> lines.put(step.getId(), step.getLocation().getLine()));
+    }
+
+    private static void collectLines(Scenario scenario, Map<String, Long> lines) {
+        lines.put(scenario.getId(), scenario.getLocation().getLine());
+        for (Step step : scenario.getSteps()) {
+            lines.put(step.getId(), step.getLocation().getLine());
+        }
+        scenario.getExamples().forEach(examples -> {
+            for (TableRow row : examples.getTableBody()) {
+                lines.put(row.getId(), row.getLocation().getLine());
+            }
+        });
+    }
+
+    private static String closest(String field, Set<String> candidates) {
+        String best = null;
+        int bestDistance = Math.max(2, field.length() / 3) + 1;
+        for (String candidate : candidates) {
+            int distance = distance(field, candidate);
+            if (distance < bestDistance) {
+                best = candidate;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    private static int distance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    // file:line, with lines compared as numbers
+    private static int compareLocations(String a, String b) {
+        int colonA = a.lastIndexOf(':');
+        int colonB = b.lastIndexOf(':');
+        if (colonA < 0 || colonB < 0 || !a.substring(0, colonA).equals(b.substring(0, colonB))) {
+            return a.compareTo(b);
+        }
+        try {
+            return Long.compare(Long.parseLong(a.substring(colonA + 1)), Long.parseLong(b.substring(colonB + 1)));
+        } catch (NumberFormatException e) {
+            return a.compareTo(b);
+        }
+    }
+
+    // The step definitions' own expressions, so the validator follows them when they change
+    private static List<StepRule> stepRules() {
+        Map<String, Role> roles = Map.of(
+                "iAmOnThePage", Role.PAGE,
+                "iNavigateTo", Role.NAVIGATE,
+                "iNavigateToUrl", Role.URL_KEY,
+                "iClickOn", Role.FIELD,
+                "iEnterIn", Role.FIELD,
+                "iShouldSeeIn", Role.FIELD,
+                "iSelectFrom", Role.FIELD,
+                "iFillInTheForm", Role.FORM);
+        ExpressionFactory expressions = new ExpressionFactory(new ParameterTypeRegistry(Locale.ENGLISH));
+        List<StepRule> rules = new ArrayList<>();
+        for (Method method : FluxionStepDefinitions.class.getMethods()) {
+            String expression = expressionOf(method);
+            if (expression == null) {
+                continue;
+            }
+            Role role = roles.getOrDefault(method.getName(), Role.NONE);
+            // Fields are the last string argument: "I enter {string} in {string}"
+            int argument = role == Role.FIELD || role == Role.PAGE || role == Role.NAVIGATE || role == Role.URL_KEY
+                    ? method.getParameterCount() - 1 : 0;
+            rules.add(new StepRule(expressions.createExpression(expression), role, argument));
+        }
+        return List.copyOf(rules);
+    }
+
+    private static String expressionOf(Method method) {
+        for (Annotation annotation : method.getAnnotations()) {
+            if (annotation instanceof Given given) {
+                return given.value();
+            } else if (annotation instanceof When when) {
+                return when.value();
+            } else if (annotation instanceof Then then) {
+                return then.value();
+            } else if (annotation instanceof And and) {
+                return and.value();
+            } else if (annotation instanceof But but) {
+                return but.value();
+            }
+        }
+        return null;
+    }
+}
@@ -5,6 +5,7 @@ import com.fluxion.utils.YamlReader;
 
 import java.io.File;
 import java.net.URL;
+import java.util.Map;
 
 /**
  * ProjectSetup is responsible for initializing project-wide settings, configurations, and resources.
@@ -31,15 +32,11 @@ public class ProjectSetup {
         // Assuming YamlReader expects a URL or path, load the YAML file
         YamlReader.loadYamlFile(configUrl.getPath());
 
-        // Load the locator data from the YAML configuration (if applicable)
-        // You can process the YAML file's content as needed. Here, it's assumed that YamlReader
-        // has a method to handle locator-specific logic based on the loaded configuration.
-        // If the YAML content has locator directories or other data, process it accordingly.
-
-        // Example: Assuming the YAML file may have locators in a specific format.
-        // Example: Map<String, String> locatorDirs = YamlReader.getLocatorDirectories();
-        // Here, you can process individual locators if required. Otherwise, if the file is simple,
-        // you don't need to load locators separately.
+        // Load every locator directory declared under locatorDir, each under its app name
+        Map<String, String> locatorDirs = YamlReader.getLocatorDirectories();
+        if (locatorDirs != null && !locatorDirs.isEmpty()) {
+            LocatorLoader.loadLocatorDirectories(locatorDirs);
+        }
 
         System.out.println("Project initialized using config file: " + finalPath);
     }
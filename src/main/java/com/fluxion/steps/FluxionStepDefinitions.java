@@ -1,12 +1,24 @@
 package com.fluxion.steps;
 
+import com.fluxion.actions.ElementCache;
 import com.fluxion.actions.SeleniumActions;
 import com.fluxion.core.ConfigManager;
 import com.fluxion.core.DriverManager;
-import com.fluxion.utils.FluxionConstants;
+import com.fluxion.core.HotReloader;
+import com.fluxion.core.LatencyMetrics;
+import com.fluxion.core.LocatorIndex;
+import com.fluxion.core.LocatorManager;
+import com.fluxion.core.NetworkFilter;
+import com.fluxion.core.SessionCache;
+import com.fluxion.utils.ScenarioContext;
 import com.fluxion.utils.ScreenshotUtil;
-import com.fluxion.utils.ThreadSafeMemory;
+import io.cucumber.datatable.DataTable;
+import io.cucumber.java.After;
+import io.cucumber.java.AfterStep;
+import io.cucumber.java.AfterAll;
 import io.cucumber.java.Before;
+import io.cucumber.java.BeforeAll;
+import io.cucumber.java.BeforeStep;
 import io.cucumber.java.Scenario;
 import io.cucumber.java.en.And;
 import io.cucumber.java.en.Given;
@@ -15,48 +27,168 @@ import org.openqa.selenium.WebDriver;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 /**
- * FluxionStepDefinitions - Merged step definitions for Fluxion UI testing with enhanced logging, thread safety, and dynamic locator handling.
+ * FluxionStepDefinitions - Merged step definitions for Fluxion UI testing with enhanced logging, scenario-scoped state, and dynamic locator handling.
  *
  * <p>This class provides step definitions for UI tests, including navigation, clicking elements, form data entry, and verification. It also includes enhanced error handling with screenshot capture.</p>
  */
 public class FluxionStepDefinitions {
     private static final Logger logger = LogManager.getLogger(FluxionStepDefinitions.class);
+    private static final ScenarioContext.Key<SessionCache.Login> LOGIN =
+            ScenarioContext.Key.of("sessionLogin", SessionCache.Login.class);
+
+    private final ScenarioContext context;
+    private final SeleniumActions seleniumActions;
 
-    // Thread-local variables for WebDriver, Scenario, and current page name
-    private static final ThreadLocal<WebDriver> threadLocalDriver = new ThreadLocal<>();
-    private static final ThreadLocal<Scenario> threadLocalScenario = new ThreadLocal<>();
-    private static final ThreadLocal<String> currentPageName = ThreadLocal.withInitial(() -> null);
-    SeleniumActions seleniumActions = new SeleniumActions();
     /**
-     * Retrieves the WebDriver instance for the current thread.
+     * Created by Cucumber for every scenario, with that scenario's context.
      *
-     * @return The WebDriver instance.
+     * @param context The scenario context, shared with the other step classes of the scenario.
      */
-    private WebDriver getDriver() {
-        return threadLocalDriver.get();
+    public FluxionStepDefinitions(ScenarioContext context) {
+        this.context = context;
+        this.seleniumActions = new SeleniumActions(context);
     }
 
     /**
-     * Retrieves the Scenario instance for the current thread.
+     * Retrieves the Scenario instance of the current scenario.
      *
      * @return The Scenario instance.
      */
     private Scenario getScenario() {
-        return threadLocalScenario.get();
+        return context.getScenario();
+    }
+
+    /**
+     * Pre-warms the driver pool before the first scenario starts.
+     */
+    @BeforeAll
+    public static void beforeAll() {
+        HotReloader.startIfEnabled();
+        DriverManager.prewarm(ConfigManager.getConfig("browser"));
     }
 
     /**
-     * Sets up the WebDriver and Scenario for the current thread.
+     * Quits all pooled browser sessions once every scenario has finished.
+     */
+    @AfterAll
+    public static void afterAll() {
+        HotReloader.stop();
+        if (ElementCache.isEnabledByConfig()) {
+            logger.info(ElementCache.summary());
+        }
+        if (NetworkFilter.isActive()) {
+            logger.info(NetworkFilter.summary());
+        }
+        if (SessionCache.isUsed()) {
+            logger.info(SessionCache.summary());
+        }
+        ScreenshotUtil.shutdown();
+        DriverManager.shutdown();
+        LatencyMetrics.export();
+    }
+
+    /**
+     * Sets up the WebDriver and Scenario for the current scenario. A scenario tagged {@code @session:<name>}
+     * gets the state of an earlier run of its Background restored, if there is one.
      *
      * @param scenario The Cucumber scenario instance.
      */
     @Before
     public void setUp(Scenario scenario) {
-        threadLocalScenario.set(scenario);
+        context.setScenario(scenario);
+        // Pin the locators for the whole scenario so a hot reload cannot change them mid-run. Read through
+        // LocatorManager, which loads the locator files on first use; the registry alone starts out empty.
+        context.setLocatorSnapshot(LocatorManager.getIndex());
         String browser = ConfigManager.getConfig("browser");
-        DriverManager.initializeDriver(browser);
-        threadLocalDriver.set(DriverManager.getDriver());
+        context.setDriver(DriverManager.lease(browser));
+
+        String session = SessionCache.sessionName(scenario.getSourceTagNames());
+        if (session != null && SessionCache.isEnabled()) {
+            SessionCache.Login login = SessionCache.begin(context.getDriver(), session, scenario.getUri(), scenario.getLine());
+            if (login != null) {
+                context.put(LOGIN, login);
+                if (login.isRestored()) {
+                    scenario.log("Background skipped: session '" + session + "' restored in "
+                            + login.getRestoreTime().toMillis() + " ms");
+                }
+            }
+        }
+    }
+
+    /**
+     * Tells the session cache that a step starts, so it knows the page the Background's last step leaves.
+     */
+    @BeforeStep
+    public void beforeStep() {
+        SessionCache.Login login = context.get(LOGIN);
+        if (login != null) {
+            login.stepStarting(context.getDriver());
+        }
+    }
+
+    /**
+     * Tells the session cache that a step finished, so it can capture the state after the Background.
+     *
+     * @param scenario The Cucumber scenario instance.
+     */
+    @AfterStep
+    public void afterStep(Scenario scenario) {
+        SessionCache.Login login = context.get(LOGIN);
+        if (login != null) {
+            login.stepFinished(scenario.isFailed(), context.getDriver());
+        }
+    }
+
+    /**
+     * Waits for the scenario's screenshots to reach disk, returns the browser session to the pool
+     * if the scenario did not close it, and releases the scenario context.
+     */
+    @After
+    public void tearDown() {
+        try {
+            ScreenshotUtil.flush(context);
+            releaseDriver();
+        } finally {
+            context.release();
+        }
+    }
+
+    /**
+     * Runs the body of a step that drives the browser. Every such step goes through here, so that the steps of a
+     * Background whose session state was restored are skipped in one place. Steps that only select a page, and
+     * closing the browser, run directly.
+     *
+     * @param body The step's actions.
+     */
+    private void browserStep(Runnable body) {
+        SessionCache.Login login = context.get(LOGIN);
+        if (login != null && login.skipsCurrentStep()) {
+            logger.debug("Skipped in restored session {}", login.getName());
+            return;
+        }
+        body.run();
+    }
+
+    /**
+     * Logs the scenario's network traffic, if the session is filtered, and returns the session to the pool.
+     */
+    private void releaseDriver() {
+        WebDriver driver = context.getDriver();
+        NetworkFilter.Traffic traffic = NetworkFilter.take(driver);
+        if (traffic != null) {
+            getScenario().log("Network: " + traffic.describe());
+            logger.debug("Network traffic of {}: {}", context.getScenarioName(), traffic.describe());
+        }
+        DriverManager.release(driver);
+        context.setDriver(null);
     }
 
     /**
@@ -67,24 +199,42 @@ public class FluxionStepDefinitions {
     @Given("I am on the {string} screen")
     public void iAmOnThePage(String pageName) {
         pageName = pageName.replace(" ", "");
-        currentPageName.set(pageName);
-        ThreadSafeMemory.put(FluxionConstants.CURRENT_PAGE_NAME, pageName);
+        seleniumActions.invalidateElementCache();
+        context.setPage(pageName, getPageLocators(pageName));
         logger.debug("I am on the: {}", pageName);
     }
 
+    /**
+     * Resolves a page against the locator snapshot pinned for this scenario. With lazy locator loading the
+     * page is parsed here, so a malformed entry fails this step rather than a later action.
+     *
+     * @param pageName The page name.
+     * @return The page's locators, or null if none are defined.
+     */
+    private LocatorIndex.Page getPageLocators(String pageName) {
+        LocatorIndex snapshot = context.getLocatorSnapshot();
+        LocatorIndex.Page page = snapshot != null ? snapshot.getPage(pageName) : LocatorManager.getPage(pageName);
+        if (page != null) {
+            page.getLocators();
+        }
+        return page;
+    }
+
     @Given("I navigate to url {string}")
     public void iNavigateToUrl(String urlKey) {
-        try {
-            String url = ConfigManager.getConfig(urlKey);
-            assert  url != null;
-            getDriver().get(url);
-            String screenshotPath = ScreenshotUtil.captureScreenshot(getDriver(), urlKey);
-            getScenario().log("Application page opened. Screenshot: " + screenshotPath);
-        } catch (Exception e) {
-            String screenshotPath = ScreenshotUtil.captureScreenshot(getDriver(), "OpenLoginPage_Error");
-            getScenario().log("Error in opening application page. Screenshot: " + screenshotPath);
-            throw new RuntimeException("Error in opening login page", e);
-        }
+        browserStep(() -> {
+            try {
+                String url = ConfigManager.getConfig(urlKey);
+                assert  url != null;
+                seleniumActions.navigateTo(url);
+                String screenshotPath = ScreenshotUtil.captureScreenshot(context, urlKey);
+                getScenario().log("Application page opened. Screenshot: " + screenshotPath);
+            } catch (Exception e) {
+                String screenshotPath = ScreenshotUtil.captureScreenshot(context, "OpenLoginPage_Error");
+                getScenario().log("Error in opening application page. Screenshot: " + screenshotPath);
+                throw new RuntimeException("Error in opening login page", e);
+            }
+        });
     }
 
     /**
@@ -94,19 +244,21 @@ public class FluxionStepDefinitions {
      */
     @And("I click on {string}")
     public void iClickOn(String fieldName) {
-        String pageName = currentPageName.get();
-        if (pageName == null) {
-            throw new RuntimeException("Current page name is not set. Use 'I am on the \"<pageName>\"' step first.");
-        }
+        browserStep(() -> {
+            String pageName = context.getPageName();
+            if (pageName == null) {
+                throw new RuntimeException("Current page name is not set. Use 'I am on the \"<pageName>\"' step first.");
+            }
 
-        try {
-            seleniumActions.click(fieldName);
-            logger.debug("Clicked on: {} on page: {}", fieldName, pageName);
-        } catch (Exception e) {
-            String screenshotPath = ScreenshotUtil.captureScreenshot(getDriver(), "ClickError_" + fieldName);
-            logger.error("Error clicking on: {} on page: {}. Screenshot: {}", fieldName, pageName, screenshotPath);
-            throw new RuntimeException("Failed to click on field: " + fieldName + " on page: " + pageName, e);
-        }
+            try {
+                seleniumActions.click(fieldName);
+                logger.debug("Clicked on: {} on page: {}", fieldName, pageName);
+            } catch (Exception e) {
+                String screenshotPath = ScreenshotUtil.captureScreenshot(context, "ClickError_" + fieldName);
+                logger.error("Error clicking on: {} on page: {}. Screenshot: {}", fieldName, pageName, screenshotPath);
+                throw new RuntimeException("Failed to click on field: " + fieldName + " on page: " + pageName, e);
+            }
+        });
     }
 
     /**
@@ -117,32 +269,89 @@ public class FluxionStepDefinitions {
      */
     @And("I enter {string} in {string}")
     public void iEnterIn(String data, String fieldName) {
-        try {
-            seleniumActions.enterText(fieldName, data);
-            logger.debug("Entered '{}' in field: '{}'", data, fieldName);
-        } catch (Exception e) {
-            String screenshotPath = ScreenshotUtil.captureScreenshot(getDriver(), "EnterDataError_" + fieldName);
-            logger.error("Error entering data in field: {}. Screenshot: {}", fieldName, screenshotPath);
-            throw new RuntimeException("Failed to enter data in field: " + fieldName, e);
-        }
+        browserStep(() -> {
+            try {
+                seleniumActions.enterText(fieldName, data);
+                logger.debug("Entered '{}' in field: '{}'", data, fieldName);
+            } catch (Exception e) {
+                String screenshotPath = ScreenshotUtil.captureScreenshot(context, "EnterDataError_" + fieldName);
+                logger.error("Error entering data in field: {}. Screenshot: {}", fieldName, screenshotPath);
+                throw new RuntimeException("Failed to enter data in field: " + fieldName, e);
+            }
+        });
+    }
+
+    /**
+     * Step to fill several fields of the current page at once. The table has a field and a value column and an
+     * optional third column; {@code keys} there types that field with real key events.
+     *
+     * <pre>
+     * And I fill in the form
+     *   | username | alice    |
+     *   | password | secret   | keys |
+     * </pre>
+     *
+     * @param table The fields and values.
+     */
+    @And("I fill in the form")
+    public void iFillInTheForm(DataTable table) {
+        browserStep(() -> {
+            Map<String, String> values = new LinkedHashMap<>();
+            Set<String> realKeyFields = new HashSet<>();
+            for (List<String> row : table.asLists()) {
+                if (row.isEmpty() || row.get(0) == null) {
+                    continue;
+                }
+                values.put(row.get(0), row.size() > 1 && row.get(1) != null ? row.get(1) : "");
+                if (row.size() > 2 && "keys".equalsIgnoreCase(row.get(2))) {
+                    realKeyFields.add(row.get(0));
+                }
+            }
+            try {
+                int roundTrips = seleniumActions.fillForm(values, realKeyFields);
+                getScenario().log("Filled " + values.size() + " field(s) in " + roundTrips + " round-trip(s), saved "
+                        + Math.max(0, values.size() * 3 - roundTrips));
+            } catch (Exception e) {
+                String screenshotPath = ScreenshotUtil.captureScreenshot(context, "FillFormError");
+                logger.error("Error filling form fields {}. Screenshot: {}", values.keySet(), screenshotPath);
+                throw new RuntimeException("Failed to fill form fields: " + values.keySet(), e);
+            }
+        });
     }
 
     /**
-     * Step to verify that specific text is visible on the page.
+     * Step to verify that specific text is visible on the page. The check is retried until the configured
+     * timeout; hidden text and markup do not count.
      *
      * @param expectedText The text to verify.
      */
     @Then("I should see {string}")
     public void iShouldSee(String expectedText) {
-        try {
-            boolean textVisible = getDriver().getPageSource().contains(expectedText);
-            if (!textVisible) {
-                throw new AssertionError("Expected text not found: " + expectedText);
-            }
+        browserStep(() -> {
+            verifyText(expectedText, null);
+        });
+    }
+
+    /**
+     * Step to verify that specific text is visible inside a field of the current page.
+     *
+     * @param expectedText The text to verify.
+     * @param fieldName    The field to search in.
+     */
+    @Then("I should see {string} in {string}")
+    public void iShouldSeeIn(String expectedText, String fieldName) {
+        browserStep(() -> {
+            verifyText(expectedText, fieldName);
+        });
+    }
 
-            getScenario().log("Verified the presence of text: " + expectedText);
+    private void verifyText(String expectedText, String fieldName) {
+        try {
+            Duration timeToVisible = seleniumActions.verifyTextVisible(expectedText, fieldName);
+            getScenario().log("Verified the presence of text: " + expectedText + " (visible after "
+                    + timeToVisible.toMillis() + " ms)");
         } catch (Exception e) {
-            String screenshotPath = ScreenshotUtil.captureScreenshot(getDriver(), "TextVerificationError");
+            String screenshotPath = ScreenshotUtil.captureScreenshot(context, "TextVerificationError");
             getScenario().log("Error verifying text: " + expectedText + ". Screenshot: " + screenshotPath);
             throw new RuntimeException("Failed to verify text: " + expectedText, e);
         }
@@ -155,18 +364,18 @@ public class FluxionStepDefinitions {
      */
     @Then("I navigate to the {string}")
     public void iNavigateTo(String newPageName) {
-        currentPageName.set(newPageName);
+        seleniumActions.invalidateElementCache();
+        context.setPage(newPageName, getPageLocators(newPageName));
         logger.debug("Navigated to page: {}", newPageName);
     }
 
     /**
-     * Step to close the browser and clean up the WebDriver instance.
+     * Step to close the browser: the session is reset and handed back to the driver pool.
      */
     @And("I close the browser")
     public void iCloseTheBrowser() {
         try {
-            DriverManager.quitDriver();
-            threadLocalDriver.remove(); // Remove thread-local driver instance
+            releaseDriver();
             getScenario().log("Browser closed successfully.");
         } catch (Exception e) {
             throw new RuntimeException("Error in closing the browser", e);
@@ -186,7 +395,9 @@ public class FluxionStepDefinitions {
 
  @And("I select {string} from {string}")
     public void iSelectFrom(String data, String fieldName) {
-        logger.debug("I select {} from {}", data, fieldName);
-        seleniumActions.selectFromDropdown(fieldName, data);
+        browserStep(() -> {
+            logger.debug("I select {} from {}", data, fieldName);
+            seleniumActions.selectFromDropdown(fieldName, data);
+        });
     }
 }
\ No newline at end of file
@@ -1,124 +1,107 @@
 package com.fluxion.utils;
 
-import org.yaml.snakeyaml.Yaml;
+import com.fluxion.core.Locator;
+import com.fluxion.core.LocatorIndex;
+import com.fluxion.core.LocatorRegistry;
 
-import java.io.FileInputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
- * LocatorLoader is a utility class responsible for loading and caching locators from YAML files.
- * Locators are loaded once per session and stored in a synchronized map for thread safety.
+ * LocatorLoader loads locator directories into the shared {@link LocatorRegistry}.
+ * Lookups read the registry's immutable snapshot and never lock.
  */
 public class LocatorLoader {
 
-    // Thread-safe map for storing locators
-    private static final Map<String, Map<String, String>> locators = Collections.synchronizedMap(new HashMap<>());
-
     // Private constructor to prevent instantiation
     private LocatorLoader() {
         throw new IllegalStateException("Utility class");
     }
 
     /**
-     * Loads all YAML locator files from a specified directory into memory.
+     * Loads all YAML locator files from a specified directory into the registry.
      *
      * @param locatorDirPath Path to the directory containing YAML locator files.
      * @throws RuntimeException if the directory does not exist, is not a directory, or locators cannot be loaded.
      */
     public static void loadLocators(String locatorDirPath) {
+        Path locatorDir = Paths.get(locatorDirPath);
+        if (!Files.exists(locatorDir) || !Files.isDirectory(locatorDir)) {
+            throw new RuntimeException("Locator directory not found or is not a directory: " + locatorDirPath);
+        }
         try {
-            Path locatorDir = Paths.get(locatorDirPath);
-
-            if (!Files.exists(locatorDir) || !Files.isDirectory(locatorDir)) {
-                throw new RuntimeException("Locator directory not found or is not a directory: " + locatorDirPath);
-            }
-
-            Files.walk(locatorDir)
-                    .filter(Files::isRegularFile)
-                    .filter(file -> file.toString().endsWith(".yml"))
-                    .forEach(LocatorLoader::loadLocatorFile);
-
+            LocatorRegistry.add(List.of(locatorDir));
         } catch (Exception e) {
             throw new RuntimeException("Failed to load locators from directory: " + locatorDirPath, e);
         }
     }
 
     /**
-     * Loads a single YAML file and stores its locators in memory.
+     * Loads the locator files or directories of a {@code locatorDir} section into the registry, in parallel.
+     * Pages of each entry are also reachable as {@code <entry>.<page>}.
      *
-     * @param filePath Path to the YAML locator file.
-     * @throws RuntimeException if the file cannot be read or its contents are invalid.
+     * @param locatorDirs Entry name to locator file or directory, e.g. {@link YamlReader#getLocatorDirectories()}.
+     * @throws RuntimeException if locators cannot be loaded.
      */
-    private static void loadLocatorFile(Path filePath) {
-        try (FileInputStream inputStream = new FileInputStream(filePath.toFile())) {
-            Yaml yaml = new Yaml();
-            Object data = yaml.load(inputStream);
-
-            if (!(data instanceof Map)) {
-                throw new IllegalArgumentException("Invalid YAML structure in file: " + filePath);
+    public static void loadLocatorDirectories(Map<String, String> locatorDirs) {
+        Map<Path, String> roots = new LinkedHashMap<>();
+        locatorDirs.forEach((app, dir) -> {
+            if (dir != null && !dir.isBlank()) {
+                roots.put(Paths.get(dir), app);
             }
-
-            @SuppressWarnings("unchecked")
-            Map<String, String> locatorData = (Map<String, String>) data;
-
-            String fileName = filePath.getFileName().toString();
-            String locatorName = fileName.substring(0, fileName.lastIndexOf('.'));
-
-            locators.put(locatorName, locatorData);
+        });
+        try {
+            LocatorRegistry.add(roots);
         } catch (Exception e) {
-            throw new RuntimeException("Failed to load locator file: " + filePath, e);
+            throw new RuntimeException("Failed to load locators from: " + locatorDirs.values(), e);
         }
     }
 
     /**
-     * Retrieves the locators for a specific locator group (file).
+     * Retrieves the locators for a specific locator group: a page, or the top-level entries of a file.
      *
-     * @param locatorName Name of the locator file (without extension).
+     * @param locatorName Name of the page or locator file (without extension).
      * @return A map of locators, where the key is the element's name, and the value is its locator.
      * @throws RuntimeException if the requested locator group is not found.
      */
     public static Map<String, String> getLocatorGroup(String locatorName) {
-        synchronized (locators) {
-            if (!locators.containsKey(locatorName)) {
-                throw new RuntimeException("Locator group not found: " + locatorName);
-            }
-            return locators.get(locatorName);
+        LocatorIndex.Page page = LocatorRegistry.snapshot().getPage(locatorName);
+        if (page == null) {
+            throw new RuntimeException("Locator group not found: " + locatorName);
         }
+        Map<String, String> group = new LinkedHashMap<>();
+        page.getLocators().forEach((field, locator) -> group.put(field, locator.toString()));
+        return group;
     }
 
     /**
      * Retrieves a specific locator's value by locator group and field name.
      *
-     * @param locatorGroup Name of the locator group (file).
+     * @param locatorGroup Name of the locator group (page or file).
      * @param fieldName    The name of the field whose locator is needed.
      * @return The locator value as a string.
      * @throws RuntimeException if the locator group or field name is not found.
      */
     public static String getLocator(String locatorGroup, String fieldName) {
-        synchronized (locators) {
-            fieldName = fieldName.replace(" ", "").toLowerCase();
-            if (!locators.containsKey(locatorGroup)) {
-                throw new RuntimeException("Locator group not found: " + locatorGroup);
-            }
-            Map<String, String> groupLocators = locators.get(locatorGroup);
-            if (!groupLocators.containsKey(fieldName)) {
-                throw new RuntimeException("Field name not found in locator group: " + fieldName);
-            }
-            return groupLocators.get(fieldName);
+        LocatorIndex.Page page = LocatorRegistry.snapshot().getPage(locatorGroup);
+        if (page == null) {
+            throw new RuntimeException("Locator group not found: " + locatorGroup);
         }
+        Locator locator = page.get(fieldName);
+        if (locator == null) {
+            throw new RuntimeException("Field name not found in locator group: " + fieldName);
+        }
+        return locator.toString();
     }
 
     /**
      * Clears all cached locators. Useful for tests or reloading locators at runtime.
      */
     public static void clearLocators() {
-        synchronized (locators) {
-            locators.clear();
-        }
+        LocatorRegistry.clear();
     }
 }
@@ -0,0 +1,158 @@
+package com.fluxion.utils;
+
+import com.fluxion.core.LocatorIndex;
+import io.cucumber.java.Scenario;
+import org.openqa.selenium.WebDriver;
+import org.picocontainer.Disposable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * ScenarioContext holds the state of one running scenario.
+ *
+ * <p>Cucumber's picocontainer creates one instance per scenario and injects it into every step class that
+ * asks for it in its constructor, so state is shared between step classes but never between scenarios or
+ * threads. The common state has fixed fields; anything else is stored under a typed {@link Key}. The context is
+ * released at the end of the scenario, by the {@code @After} hook or, failing that, when picocontainer disposes
+ * it. It replaces {@link ThreadSafeMemory}, whose entries outlived the scenario on pooled threads.</p>
+ */
+public class ScenarioContext implements Disposable {
+    private Scenario scenario;
+    private WebDriver driver;
+    private String pageName;
+    private LocatorIndex.Page pageLocators;
+    private LocatorIndex locatorSnapshot;
+    // Created on first use; most scenarios only need the fixed fields
+    private Map<Key<?>, Object> values;
+
+    /**
+     * A typed key for {@link ScenarioContext#put(Key, Object)}. Keys compare by identity, so declare them as
+     * constants.
+     *
+     * @param <T> The type of the value.
+     */
+    public static final class Key<T> {
+        private final String name;
+        private final Class<T> type;
+
+        private Key(String name, Class<T> type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        public static <T> Key<T> of(String name, Class<T> type) {
+            return new Key<>(name, type);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String toString() {
+            return name + ":" + type.getSimpleName();
+        }
+    }
+
+    public Scenario getScenario() {
+        return scenario;
+    }
+
+    public void setScenario(Scenario scenario) {
+        this.scenario = scenario;
+    }
+
+    /**
+     * @return The scenario name, or null outside a scenario.
+     */
+    public String getScenarioName() {
+        return scenario != null ? scenario.getName() : null;
+    }
+
+    public WebDriver getDriver() {
+        return driver;
+    }
+
+    public void setDriver(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    public String getPageName() {
+        return pageName;
+    }
+
+    public LocatorIndex.Page getPageLocators() {
+        return pageLocators;
+    }
+
+    /**
+     * Switches the current page.
+     *
+     * @param pageName     The page name.
+     * @param pageLocators The page's locators, or null if none are defined.
+     */
+    public void setPage(String pageName, LocatorIndex.Page pageLocators) {
+        this.pageName = pageName;
+        this.pageLocators = pageLocators;
+    }
+
+    public LocatorIndex getLocatorSnapshot() {
+        return locatorSnapshot;
+    }
+
+    public void setLocatorSnapshot(LocatorIndex locatorSnapshot) {
+        this.locatorSnapshot = locatorSnapshot;
+    }
+
+    public <T> void put(Key<T> key, T value) {
+        if (values == null) {
+            values = new HashMap<>();
+        }
+        values.put(key, key.type.cast(value));
+    }
+
+    public <T> T get(Key<T> key) {
+        return values == null ? null : key.type.cast(values.get(key));
+    }
+
+    /**
+     * Returns the value for a key, storing the supplied value first if there is none.
+     *
+     * @param key     The key.
+     * @param initial Supplies the value if the key is not set.
+     * @param <T>     The type of the value.
+     * @return The value.
+     */
+    public <T> T computeIfAbsent(Key<T> key, Supplier<T> initial) {
+        T value = get(key);
+        if (value == null) {
+            value = initial.get();
+            put(key, value);
+        }
+        return value;
+    }
+
+    public <T> T remove(Key<T> key) {
+        return values == null ? null : key.type.cast(values.remove(key));
+    }
+
+    /**
+     * Drops every reference held for the scenario. The driver is not quit or released here; that is the
+     * job of whoever leased it.
+     */
+    public void release() {
+        scenario = null;
+        driver = null;
+        pageName = null;
+        pageLocators = null;
+        locatorSnapshot = null;
+        values = null;
+    }
+
+    @Override
+    public void dispose() {
+        release();
+    }
+}
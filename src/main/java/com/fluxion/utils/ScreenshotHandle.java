@@ -0,0 +1,42 @@
+package com.fluxion.utils;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ScreenshotHandle refers to a screenshot whose file may still be being written in the background.
+ * The target path is known as soon as the capture returns; the stored file's path, which may differ in its
+ * extension, is known once {@link #getWritten()} completes.
+ */
+public class ScreenshotHandle {
+    private final Path path;
+    private final CompletableFuture<Path> written;
+
+    ScreenshotHandle(Path path, CompletableFuture<Path> written) {
+        this.path = path;
+        this.written = written;
+    }
+
+    /**
+     * @return The path the screenshot is written to. A JPEG screenshot whose re-encode was not worth keeping is
+     * stored as {@code .png} instead; {@link #getWritten()} completes with the final path.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return A future that completes with the final path once the file is on disk.
+     */
+    public CompletableFuture<Path> getWritten() {
+        return written;
+    }
+
+    /**
+     * @return The target path; see {@link #getPath()}.
+     */
+    @Override
+    public String toString() {
+        return path.toString();
+    }
+}
@@ -0,0 +1,295 @@
+package com.fluxion.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fluxion.core.FluxionConfig;
+import com.fluxion.core.LatencyMetrics;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ScreenshotStore is a content-addressed screenshot directory.
+ *
+ * <p>Screenshots are named after the SHA-256 of their content, so an identical page is stored once no matter
+ * how often it is captured. Stored images can be downscaled to {@code screenshot.maxWidth} and re-encoded as
+ * JPEG ({@code screenshot.format: jpg}, {@code screenshot.quality}); an image that is not downscaled keeps its
+ * original PNG bytes, and a {@code .png} name, when the re-encode would be larger. Every capture, duplicate or
+ * not, is appended to {@code index.jsonl} with its scenario and step, so reports can still link each image.</p>
+ */
+public class ScreenshotStore {
+    private static final Logger logger = LogManager.getLogger(ScreenshotStore.class);
+    public static final String INDEX_FILE = "index.jsonl";
+
+    private final Path dir;
+    private final boolean dedupe;
+    private final int maxWidth;
+    private final String format;
+    private final float quality;
+    private final Map<String, CompletableFuture<Path>> writes = new ConcurrentHashMap<>();
+    private final ObjectMapper mapper = new ObjectMapper();
+    // A lock rather than synchronized: a capturing virtual thread that writes the index itself is not pinned
+    private final ReentrantLock indexLock = new ReentrantLock();
+
+    private final AtomicLong captures = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong capturedBytes = new AtomicLong();
+    private final AtomicLong writtenBytes = new AtomicLong();
+
+    public ScreenshotStore(Path dir, boolean dedupe, int maxWidth, String format, float quality) {
+        this.dir = dir;
+        this.dedupe = dedupe;
+        this.maxWidth = maxWidth;
+        this.format = "jpg".equalsIgnoreCase(format) || "jpeg".equalsIgnoreCase(format) ? "jpg" : "png";
+        this.quality = quality;
+    }
+
+    /**
+     * Creates a store from the {@code screenshot} section of config.yml.
+     *
+     * @return The configured store.
+     */
+    public static ScreenshotStore fromConfig() {
+        FluxionConfig config = FluxionConfig.get();
+        return new ScreenshotStore(config.getPath("screenshot.dir"),
+                config.getBoolean("screenshot.dedupe"),
+                config.getInt("screenshot.maxWidth"),
+                config.getString("screenshot.format"),
+                (float) config.getDouble("screenshot.quality"));
+    }
+
+    /**
+     * Hashes a screenshot as returned by the driver. Identical images give identical base64 payloads, so the
+     * payload is hashed directly without decoding it on the capturing thread.
+     *
+     * @param base64Screenshot The base64 PNG payload.
+     * @return The hex SHA-256 of the payload.
+     */
+    public static String hash(String base64Screenshot) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(base64Screenshot.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Stores a screenshot. The hash is computed on the calling thread so the final path is known at once;
+     * decoding, encoding and the write run on the given executor. A screenshot whose content is already stored
+     * shares the existing file and its pending write. A write that fails is not shared, so the next capture
+     * of the same content tries again.
+     *
+     * @param base64Screenshot The base64 PNG payload from the driver.
+     * @param scenario         The scenario name, may be null outside a scenario.
+     * @param step             The screenshot name given by the step.
+     * @param executor         Executor for decoding and disk writes.
+     * @return A handle with the target path and a future for the write.
+     */
+    public ScreenshotHandle save(String base64Screenshot, String scenario, String step, Executor executor) {
+        captures.incrementAndGet();
+        capturedBytes.addAndGet(base64Screenshot.length() * 3L / 4);
+        String hash = hash(base64Screenshot);
+
+        Path target;
+        CompletableFuture<Path> written;
+        if (!dedupe) {
+            target = dir.resolve(step + "_" + UUID.randomUUID() + "." + format);
+            written = CompletableFuture.supplyAsync(() -> write(base64Screenshot, target), executor);
+        } else {
+            target = dir.resolve(hash + "." + format);
+            CompletableFuture<Path> promise = new CompletableFuture<>();
+            CompletableFuture<Path> existing = writes.putIfAbsent(hash, promise);
+            if (existing != null) {
+                duplicates.incrementAndGet();
+                written = existing;
+            } else if (stored(target) != null) {
+                // Stored by an earlier run into the same directory
+                duplicates.incrementAndGet();
+                promise.complete(stored(target));
+                written = promise;
+            } else {
+                promise.whenComplete((path, failure) -> {
+                    if (failure != null) {
+                        writes.remove(hash, promise);
+                    }
+                });
+                CompletableFuture.runAsync(() -> {
+                    try {
+                        promise.complete(write(base64Screenshot, target));
+                    } catch (RuntimeException e) {
+                        promise.completeExceptionally(e);
+                    }
+                }, executor);
+                written = promise;
+            }
+        }
+        // Indexed once written, under the name the bytes were actually stored with
+        return new ScreenshotHandle(target, written.thenApplyAsync(path -> {
+            record(scenario, step, hash, path);
+            return path;
+        }, executor));
+    }
+
+    // The file an earlier run stored for a target, under the configured or the PNG extension
+    private Path stored(Path target) {
+        if (Files.exists(target)) {
+            return target;
+        }
+        Path png = withExtension(target, "png");
+        return Files.exists(png) ? png : null;
+    }
+
+    private Path write(String base64Screenshot, Path target) {
+        long started = LatencyMetrics.start();
+        try {
+            byte[] encoded = encode(Base64.getMimeDecoder().decode(base64Screenshot));
+            Path file = isPng(encoded) ? withExtension(target, "png") : target;
+            Files.createDirectories(file.getParent());
+            Files.write(file, encoded);
+            writtenBytes.addAndGet(encoded.length);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write screenshot " + target + ": " + e.getMessage(), e);
+        } finally {
+            LatencyMetrics.record("screenshot.write", null, started);
+        }
+    }
+
+    /**
+     * Appends an index entry mapping a scenario step to the stored image.
+     *
+     * @param scenario The scenario name, may be null outside a scenario.
+     * @param step     The screenshot name given by the step.
+     * @param hash     The content hash.
+     * @param file     The stored file.
+     */
+    public void record(String scenario, String step, String hash, Path file) {
+        ObjectNode entry = mapper.createObjectNode();
+        entry.put("scenario", scenario);
+        entry.put("step", step);
+        entry.put("hash", hash);
+        entry.put("file", file.getFileName().toString());
+        indexLock.lock();
+        try {
+            Files.createDirectories(dir);
+            try (Writer writer = Files.newBufferedWriter(dir.resolve(INDEX_FILE), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(mapper.writeValueAsString(entry));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to record screenshot {} in the index: {}", file, e.getMessage());
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * @return A one-line summary of captures, duplicates and bytes saved during this run.
+     */
+    public String summary() {
+        long saved = Math.max(0, capturedBytes.get() - writtenBytes.get());
+        return String.format(Locale.ROOT, "%d screenshot(s) captured, %d duplicate(s), %.1f MB written, %.1f MB saved",
+                captures.get(), duplicates.get(), writtenBytes.get() / 1_048_576.0, saved / 1_048_576.0);
+    }
+
+    public long getBytesSaved() {
+        return Math.max(0, capturedBytes.get() - writtenBytes.get());
+    }
+
+    private byte[] encode(byte[] png) throws IOException {
+        if (maxWidth <= 0 && "png".equals(format)) {
+            return png;
+        }
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        if (image == null) {
+            return png;
+        }
+        boolean downscaled = maxWidth > 0 && image.getWidth() > maxWidth;
+        if (downscaled) {
+            image = scale(image, maxWidth);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if ("png".equals(format)) {
+            ImageIO.write(image, "png", out);
+        } else {
+            writeJpeg(image, out);
+        }
+        // Re-encoding can make small images bigger; keep the original unless it was downscaled
+        return downscaled || out.size() < png.length ? out.toByteArray() : png;
+    }
+
+    private static boolean isPng(byte[] bytes) {
+        return bytes.length >= 4 && (bytes[0] & 0xff) == 0x89 && bytes[1] == 'P' && bytes[2] == 'N' && bytes[3] == 'G';
+    }
+
+    private static Path withExtension(Path file, String extension) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return file.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + "." + extension);
+    }
+
+    private BufferedImage scale(BufferedImage image, int width) {
+        int height = Math.max(1, Math.round(image.getHeight() * (width / (float) image.getWidth())));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private void writeJpeg(BufferedImage image, ByteArrayOutputStream out) throws IOException {
+        BufferedImage rgb = image;
+        if (image.getType() != BufferedImage.TYPE_INT_RGB) {
+            // JPEG has no alpha channel
+            rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = rgb.createGraphics();
+            graphics.drawImage(image, 0, 0, null);
+            graphics.dispose();
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(rgb, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -1,28 +1,178 @@
 package com.fluxion.utils;
 
-import com.fluxion.core.ConfigManager;
+import com.fluxion.core.FluxionConfig;
+import com.fluxion.core.LatencyMetrics;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 
-import java.io.File;
-import java.nio.file.Files;
-import java.nio.file.StandardCopyOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * ScreenshotUtil captures screenshots on the step thread and writes them to disk in the background.
+ *
+ * <p>The capture only fetches and hashes the base64 payload from the driver. Decoding, re-encoding and the disk
+ * write run on a bounded writer pool ({@code screenshot.writerThreads}, {@code screenshot.queueSize}); when the
+ * queue is full, or the pool has been shut down, the capturing thread writes the file itself, which throttles
+ * capture to the speed of the disk and never drops a write.
+ * {@link #flush(ScenarioContext)} waits for the scenario's pending writes and is called at the end of each scenario.
+ * {@code captureScreenshot} waits for its own write, since the path it returns is logged and attached.</p>
+ */
 public class ScreenshotUtil {
+    private static final Logger logger = LogManager.getLogger(ScreenshotUtil.class);
+    private static final ScenarioContext.Key<PendingWrites> PENDING_SCREENSHOTS =
+            ScenarioContext.Key.of("pendingScreenshots", PendingWrites.class);
+    private static final ThreadPoolExecutor writer = createWriter();
+    private static final ScreenshotStore store = ScreenshotStore.fromConfig();
 
+    /**
+     * Captures a screenshot outside a scenario and waits until it is stored.
+     *
+     * @param driver         The driver to capture.
+     * @param screenshotName Name of the step or event the screenshot belongs to.
+     * @return The path of the stored file.
+     */
     public static String captureScreenshot(WebDriver driver, String screenshotName) {
+        return storedPath(captureScreenshotAsync(driver, screenshotName));
+    }
+
+    /**
+     * Captures the scenario's browser and waits until the screenshot is stored, so the returned path can be
+     * logged or attached: the file may be stored as {@code .png} rather than the configured format. Use
+     * {@link #captureScreenshotAsync(ScenarioContext, String)} to leave the write to {@link #flush(ScenarioContext)}.
+     *
+     * @param context        The scenario context.
+     * @param screenshotName Name of the step or event the screenshot belongs to.
+     * @return The path of the stored file.
+     */
+    public static String captureScreenshot(ScenarioContext context, String screenshotName) {
+        return storedPath(captureScreenshotAsync(context, screenshotName));
+    }
+
+    /**
+     * Captures a screenshot outside a scenario and queues it for writing into the {@link ScreenshotStore}.
+     *
+     * @param driver         The driver to capture.
+     * @param screenshotName Name of the step or event the screenshot belongs to.
+     * @return A handle with the target path and a future for the write.
+     */
+    public static ScreenshotHandle captureScreenshotAsync(WebDriver driver, String screenshotName) {
+        return capture(driver, null, screenshotName);
+    }
+
+    /**
+     * Captures the scenario's browser and queues the screenshot for writing into the {@link ScreenshotStore}.
+     *
+     * @param context        The scenario context.
+     * @param screenshotName Name of the step or event the screenshot belongs to.
+     * @return A handle with the target path and a future for the write.
+     */
+    public static ScreenshotHandle captureScreenshotAsync(ScenarioContext context, String screenshotName) {
+        ScreenshotHandle handle = capture(context.getDriver(), context.getScenarioName(), screenshotName);
+        context.computeIfAbsent(PENDING_SCREENSHOTS, PendingWrites::new).writes().add(handle.getWritten());
+        return handle;
+    }
+
+    /**
+     * Waits until every screenshot captured in the scenario is on disk. Failed writes are logged.
+     *
+     * @param context The scenario context.
+     */
+    public static void flush(ScenarioContext context) {
+        PendingWrites pending = context.remove(PENDING_SCREENSHOTS);
+        if (pending == null) {
+            return;
+        }
+        long started = LatencyMetrics.start();
+        for (CompletableFuture<Path> write : pending.writes()) {
+            try {
+                write.join();
+            } catch (Exception e) {
+                logger.error("Screenshot could not be written: {}", e.getMessage());
+            }
+        }
+        LatencyMetrics.record("screenshot.flush", null, started);
+    }
+
+    /**
+     * Writes the remaining queued screenshots and stops the writer pool.
+     */
+    public static void shutdown() {
+        if (writer.isShutdown()) {
+            return;
+        }
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warn("{} screenshot(s) were still queued at shutdown", writer.getQueue().size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Screenshots: {}", store.summary());
+    }
+
+    public static ScreenshotStore getStore() {
+        return store;
+    }
+
+    private static ScreenshotHandle capture(WebDriver driver, String scenario, String screenshotName) {
+        long started = LatencyMetrics.start();
         try {
-            File screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
-            String dirPath = ConfigManager.getNestedConfig("screenshot", "dir");
-            String targetPath = dirPath + "/" + screenshotName + "_" + java.util.UUID.randomUUID() + ".png";
-
-            File targetFile = new File(targetPath);
-            targetFile.getParentFile().mkdirs();
-            Files.move(screenshot.toPath(), targetFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
-            return targetPath;
+            String screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64);
+            return store.save(screenshot, scenario, screenshotName, writer);
         } catch (Exception e) {
             throw new RuntimeException("Failed to capture screenshot: " + e.getMessage(), e);
+        } finally {
+            LatencyMetrics.record("screenshot.capture", null, started);
+        }
+    }
+
+    private static String storedPath(ScreenshotHandle handle) {
+        try {
+            return handle.getWritten().join().toString();
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new RuntimeException("Failed to write screenshot " + handle + ": " + cause.getMessage(), cause);
+        }
+    }
+
+    private static ThreadPoolExecutor createWriter() {
+        int threads = FluxionConfig.get().getInt("screenshot.writerThreads");
+        int queueSize = FluxionConfig.get().getInt("screenshot.queueSize");
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "fluxion-screenshot-writer-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, ScreenshotUtil::runOnCaller);
+        executor.allowCoreThreadTimeOut(true);
+        Runtime.getRuntime().addShutdownHook(new Thread(ScreenshotUtil::shutdown, "fluxion-screenshot-shutdown"));
+        return executor;
+    }
+
+    // Unlike CallerRunsPolicy, also runs tasks rejected because the pool is shut down; a discarded task would
+    // leave its future incomplete and flush() waiting forever
+    private static void runOnCaller(Runnable task, ThreadPoolExecutor executor) {
+        task.run();
+    }
+
+    // A typed holder for the scenario context key
+    private record PendingWrites(List<CompletableFuture<Path>> writes) {
+        PendingWrites() {
+            this(new ArrayList<>());
         }
     }
 }
@@ -3,6 +3,11 @@ package com.fluxion.utils;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * @deprecated Entries live as long as the thread, so they leak into later scenarios on pooled threads.
+ * Inject a {@link ScenarioContext} into the step class instead.
+ */
+@Deprecated
 public class ThreadSafeMemory {
 
     private static final ThreadLocal<Map<String, Object>> threadLocalMemory = ThreadLocal.withInitial(HashMap::new);
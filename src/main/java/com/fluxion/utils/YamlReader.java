@@ -1,13 +1,13 @@
 package com.fluxion.utils;
 
-import org.yaml.snakeyaml.Yaml;
+import com.fluxion.core.FluxionConfig;
 
-import java.io.FileInputStream;
-import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.Map;
 
 /**
  * YamlReader is a utility class for reading configuration data from YAML files.
+ * It uses the same YAML reader as {@link FluxionConfig}.
  */
 public class YamlReader {
 
@@ -19,9 +19,8 @@ public class YamlReader {
      * @param filePath Path to the YAML file.
      */
     public static void loadYamlFile(String filePath) {
-        try (InputStream inputStream = new FileInputStream(filePath)) {
-            Yaml yaml = new Yaml();
-            config = yaml.load(inputStream);
+        try {
+            config = FluxionConfig.readYaml(Path.of(filePath));
         } catch (Exception e) {
             throw new RuntimeException("Failed to read YAML file: " + filePath, e);
         }
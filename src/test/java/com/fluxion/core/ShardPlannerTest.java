@@ -0,0 +1,150 @@
+package com.fluxion.core;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Plans shards offline from a synthetic Cucumber JSON report and checks the timing file round trip.
+ */
+public class ShardPlannerTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    private Path dir;
+
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        dir = Files.createTempDirectory("fluxion-shards");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Test
+    public void readsScenarioDurationsFromCucumberJson() throws IOException {
+        ScenarioTimings timings = ScenarioTimings.fromCucumberJson(report().toString());
+
+        assertEquals(timings.getDurations().size(), 5);
+        // The background runs for each scenario and counts towards it
+        assertEquals(timings.getDuration("features/login.feature:6"), 9 * SECOND);
+        assertEquals(timings.getDuration("features/login.feature:10"), 3 * SECOND);
+        assertEquals(timings.getDuration("features/search.feature:3"), 6 * SECOND);
+        assertEquals(timings.getDuration("features/search.feature:99"), -1L);
+    }
+
+    @Test
+    public void balancesShardsLongestFirst() throws IOException {
+        ScenarioTimings timings = ScenarioTimings.fromCucumberJson(report().toString());
+        List<String> keys = List.of("features/login.feature:6", "features/login.feature:10",
+                "features/search.feature:3", "features/search.feature:7", "features/search.feature:11");
+
+        Map<String, Integer> plan = ShardPlanner.plan(keys, timings, 2);
+
+        // Each scenario, longest first, goes to the lighter shard: 9 + 4 and 6 + 5 + 3
+        assertEquals(plan.get("features/login.feature:6"), Integer.valueOf(0));
+        assertEquals(plan.get("features/search.feature:11"), Integer.valueOf(0));
+        assertEquals(plan.get("features/search.feature:3"), Integer.valueOf(1));
+        assertEquals(plan.get("features/search.feature:7"), Integer.valueOf(1));
+        assertEquals(plan.get("features/login.feature:10"), Integer.valueOf(1));
+        assertEquals(ShardPlanner.estimatedLoads(plan, timings, 2), new long[]{13 * SECOND, 14 * SECOND});
+    }
+
+    @Test
+    public void plansTheSameShardsForAnyKeyOrder() throws IOException {
+        ScenarioTimings timings = ScenarioTimings.fromCucumberJson(report().toString());
+        List<String> keys = List.of("features/login.feature:6", "features/login.feature:10",
+                "features/search.feature:3", "features/search.feature:7", "features/search.feature:11");
+
+        List<String> reversed = new ArrayList<>(keys);
+        Collections.reverse(reversed);
+
+        assertEquals(ShardPlanner.plan(reversed, timings, 3), ShardPlanner.plan(keys, timings, 3));
+    }
+
+    @Test
+    public void plansUnknownScenariosWithTheAverageDuration() throws IOException {
+        ScenarioTimings timings = ScenarioTimings.fromCucumberJson(report().toString());
+        List<String> keys = List.of("features/search.feature:3", "features/new.feature:2", "features/login.feature:10");
+
+        Map<String, Integer> plan = ShardPlanner.plan(keys, timings, 2);
+
+        // The new scenario counts as 4.5 seconds, the average of the known ones: 6 and 4.5 + 3
+        assertEquals(plan.get("features/new.feature:2"), Integer.valueOf(1));
+        assertEquals(ShardPlanner.estimatedLoads(plan, timings, 2), new long[]{6 * SECOND, 7 * SECOND + SECOND / 2});
+    }
+
+    @Test
+    public void writesAndReadsTheTimingFile() throws IOException {
+        ScenarioTimings timings = ScenarioTimings.fromCucumberJson(report().toString());
+        Path timingFile = dir.resolve("timings/timings.json");
+
+        timings.writeTo(timingFile);
+
+        assertTrue(Files.readString(timingFile).contains("\"version\" : 1"));
+        assertEquals(ScenarioTimings.fromTimingFile(timingFile).getDurations(), timings.getDurations());
+        // fromFile tells a timing file from a Cucumber report by its content
+        assertEquals(ScenarioTimings.fromFile(timingFile).getDurations(), timings.getDurations());
+        assertEquals(ScenarioTimings.fromFile(report()).getDurations(), timings.getDurations());
+    }
+
+    @Test
+    public void newerTimingsWinWhenMerged() {
+        ScenarioTimings older = new ScenarioTimings(Map.of("a.feature:1", 5L, "a.feature:2", 7L));
+        ScenarioTimings newer = new ScenarioTimings(Map.of("a.feature:2", 9L, "b.feature:1", 1L));
+
+        assertEquals(older.mergedWith(newer).getDurations(), Map.of("a.feature:1", 5L, "a.feature:2", 9L, "b.feature:1", 1L));
+    }
+
+    @Test
+    public void ignoresTimingFilesOfAnotherVersion() throws IOException {
+        Path timingFile = dir.resolve("timings.json");
+        Files.writeString(timingFile, "{\"version\": 2, \"durations\": {\"a.feature:1\": 5}}", StandardCharsets.UTF_8);
+
+        assertTrue(ScenarioTimings.fromTimingFile(timingFile).isEmpty());
+    }
+
+    // Two features: login with a 1 second background before two scenarios, search with three scenarios
+    private Path report() throws IOException {
+        Path report = dir.resolve("cucumber.json");
+        if (!Files.exists(report)) {
+            String json = "[" + feature("file:features/login.feature",
+                    element("background", 3, 1), element("scenario", 6, 8),
+                    element("background", 3, 1), element("scenario", 10, 2))
+                    + "," + feature("file:features/search.feature",
+                    element("scenario", 3, 6), element("scenario", 7, 5), element("scenario", 11, 4))
+                    + "]";
+            Files.writeString(report, json, StandardCharsets.UTF_8);
+        }
+        return report;
+    }
+
+    private static String feature(String uri, String... elements) {
+        return "{\"uri\": \"" + uri + "\", \"name\": \"" + uri + "\", \"elements\": [" + String.join(",", elements) + "]}";
+    }
+
+    private static String element(String type, int line, long seconds) {
+        return "{\"type\": \"" + type + "\", \"name\": \"" + type + " " + line + "\", \"line\": " + line
+                + ", \"steps\": [{\"keyword\": \"Given \", \"name\": \"a step\", \"result\": {\"status\": \"passed\", "
+                + "\"duration\": " + seconds * SECOND + "}}]}";
+    }
+}
@@ -0,0 +1,92 @@
+package com.fluxion.utils;
+
+import com.fluxion.actions.SeleniumActions;
+import com.fluxion.core.LocatorIndex;
+import org.testng.annotations.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Runs many scenario lifecycles on a small pool of long-lived threads, as the parallel runners do, and checks
+ * that nothing keeps a finished scenario's state reachable.
+ */
+public class ScenarioContextLeakTest {
+    private static final ScenarioContext.Key<byte[]> PAYLOAD = ScenarioContext.Key.of("payload", byte[].class);
+    private static final int SCENARIOS = 2_000;
+    private static final int THREADS = 4;
+
+    @Test
+    public void finishedScenariosAreCollected() throws Exception {
+        List<WeakReference<ScenarioContext>> contexts = new ArrayList<>();
+        ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<WeakReference<ScenarioContext>>> scenarios = new ArrayList<>();
+            for (int i = 0; i < SCENARIOS; i++) {
+                scenarios.add(threads.submit(ScenarioContextLeakTest::runScenario));
+            }
+            for (Future<WeakReference<ScenarioContext>> scenario : scenarios) {
+                contexts.add(scenario.get());
+            }
+            // The threads stay alive, so anything they still hold for a scenario would stay reachable
+            assertEquals(reachable(contexts), 0, "scenario contexts still reachable after " + SCENARIOS + " scenarios");
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    public void releaseDropsScenarioState() {
+        ScenarioContext context = new ScenarioContext();
+        WeakReference<byte[]> payload = populate(context);
+
+        context.release();
+
+        assertNull(context.get(PAYLOAD));
+        assertNull(context.getPageName());
+        assertNull(context.getLocatorSnapshot());
+        // The context itself may outlive the scenario in picocontainer; its state must not
+        assertEquals(reachable(List.of(payload)), 0, "payload still reachable after release");
+    }
+
+    // One scenario as the step definitions see it: a context, its actions, some state, and the @After release
+    private static WeakReference<ScenarioContext> runScenario() {
+        ScenarioContext context = new ScenarioContext();
+        SeleniumActions actions = new SeleniumActions(context);
+        populate(context);
+        actions.invalidateElementCache();
+        context.release();
+        return new WeakReference<>(context);
+    }
+
+    private static WeakReference<byte[]> populate(ScenarioContext context) {
+        byte[] payload = new byte[64 * 1024];
+        context.put(PAYLOAD, payload);
+        context.setLocatorSnapshot(LocatorIndex.empty());
+        context.setPage("LoginPage", null);
+        return new WeakReference<>(payload);
+    }
+
+    // Collects garbage until every referent is gone or the attempts run out
+    private static int reachable(List<? extends WeakReference<?>> references) {
+        int reachable = references.size();
+        for (int attempt = 0; attempt < 50 && reachable > 0; attempt++) {
+            System.gc();
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            reachable = (int) references.stream().filter(reference -> reference.get() != null).count();
+        }
+        return reachable;
+    }
+}
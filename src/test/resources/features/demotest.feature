@@ -1,3 +1,4 @@
+@session:admin
 Feature: demo login test
 
   Background: